@@ -0,0 +1,153 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.utils.Array;
+import com.stormbreaker.Enemy.EnemyState;
+import com.stormbreaker.ecs.Transforms;
+
+/**
+ * Decides which enemies get a turn this tick, {@link Enemy#decide} and {@link Enemy#commit}, so
+ * far away enemies with nothing going on don't cost a full update every tick.
+ *
+ * Every tick each enemy is put in a tier by its state and its distance to the player:
+ * alerted or moving enemies, enemies near the player and enemies that saw or heard something
+ * in {@link PerceptionSystem} update every tick, cautious ones further away every
+ * {@link #CAUTIOUS_INTERVAL}th tick and unaware ones further away every
+ * {@link #UNAWARE_INTERVAL}th. A skipped enemy collects the time it missed and gets it as one
+ * longer delta on its turn, so its timers and turns keep their speed. Enemies start at
+ * staggered counts, so each tick only about one in interval enemies of a tier is due.
+ *
+ * Perceiving still happens every tick for everyone, a gunshot is only heard for a tick or two
+ * and an enemy that hears it moves up to the every-tick tier right away.
+ *
+ * With a budget set, due enemies of the slower tiers wait once the turns handed out this tick
+ * would take that long. Turns are handed out before any of them run, so the time a turn takes
+ * is measured between {@link #beginTick} and {@link #endTick} and averaged over the last ticks.
+ * Every-tick enemies always run. The ones held back are handed out by {@link #getCarriedOver}
+ * at the start of the next tick, to get their turn before anyone else, so the same enemies at
+ * the end of the list aren't skipped tick after tick. The budget depends on how fast the
+ * machine is, so it's off unless set, which keeps headless runs reproducible.
+ *
+ * Call {@link #beginTick}, then {@link #sliceFor} for the carried over enemies and then for the
+ * whole list, let the enemies with a turn decide and commit, then call {@link #endTick}; an
+ * enemy that already got its turn this tick gets 0 the second time. What the scheduler knows
+ * about an enemy is kept in its {@link AiStates} component, next to the state and position it
+ * is tiered by.
+ */
+public class AiScheduler {
+    public static final int CAUTIOUS_INTERVAL = 2;
+    public static final int UNAWARE_INTERVAL = 8;
+    // within this distance of the player enemies update every tick whatever their state
+    private static final float NEAR_DISTANCE = 600f;
+    // longest delta a skipped enemy catches up with at once, beyond that the time is dropped
+    private static final float MAX_DELTA = 0.1f;
+
+    private final EnemyEntities entities;
+    private Array<Enemy> carriedOver = new Array<>(); // held back by the budget last tick
+    private Array<Enemy> heldBack = new Array<>(); // held back by the budget this tick
+    private int tick;
+    private int registered; // enemies seen so far, for staggering
+    private long budgetNanos; // 0 for no budget
+    private long tickStart;
+    private int turnsThisTick;
+    private long nanosPerTurn; // average cost of a turn over the last ticks, 0 until measured
+
+    private long updates;
+    private long skips;
+
+    public AiScheduler(EnemyEntities entities) {
+        this.entities = entities;
+    }
+
+    /**
+     * Microseconds of enemy updates per tick after which the slower tiers wait, 0 for no limit.
+     */
+    public void setBudgetMicros(long micros) {
+        budgetNanos = micros * 1000L;
+    }
+
+    // call before the first sliceFor of a tick, starts the budget
+    public void beginTick() {
+        tick++;
+        Array<Enemy> swap = carriedOver;
+        carriedOver = heldBack;
+        heldBack = swap;
+        heldBack.clear();
+        turnsThisTick = 0;
+        tickStart = System.nanoTime();
+    }
+
+    // call once the enemies given a turn this tick have committed, measures what a turn costs
+    public void endTick() {
+        if (turnsThisTick == 0) return;
+        long perTurn = (System.nanoTime() - tickStart) / turnsThisTick;
+        nanosPerTurn = nanosPerTurn == 0 ? perTurn : (nanosPerTurn * 7 + perTurn) / 8;
+    }
+
+    // enemies the budget held back last tick, oldest first; update these before the rest
+    public Array<Enemy> getCarriedOver() {
+        return carriedOver;
+    }
+
+    /**
+     * Seconds to update the enemy with this tick, delta plus whatever it skipped, or 0 if it
+     * waits or already had its turn this tick. The slice is kept in its AiStates slice too.
+     */
+    public float sliceFor(Enemy enemy, Player player, float delta) {
+        int i = enemy.index();
+        // retired since it was carried over
+        if (i < 0 || enemy.isDead()) return 0f;
+        AiStates ai = entities.ai;
+        if (ai.lastAsked[i] == tick) return 0f; // already had its turn
+        ai.lastAsked[i] = tick;
+        int waited = ai.ticksWaited[i];
+        if (waited < 0) waited = registered++ % UNAWARE_INTERVAL;
+        waited++;
+        float pending = Math.min(ai.pendingDelta[i] + delta, MAX_DELTA);
+
+        int interval = interval(i, player);
+        boolean due = waited >= interval;
+        if (due && interval > 1 && budgetNanos > 0 && turnsThisTick * nanosPerTurn >= budgetNanos) {
+            due = false; // out of time, it goes first next tick
+            heldBack.add(enemy);
+        }
+        if (!due) {
+            ai.ticksWaited[i] = waited;
+            ai.pendingDelta[i] = pending;
+            skips++;
+            return 0f;
+        }
+        ai.ticksWaited[i] = 0;
+        ai.pendingDelta[i] = 0f;
+        ai.slice[i] = pending;
+        turnsThisTick++;
+        updates++;
+        return pending;
+    }
+
+    public void clear() {
+        carriedOver.clear();
+        heldBack.clear();
+        registered = 0;
+    }
+
+    // enemy updates run since the scheduler was created
+    public long getUpdates() {
+        return updates;
+    }
+
+    // enemy updates put off to a later tick since the scheduler was created
+    public long getSkips() {
+        return skips;
+    }
+
+    // ticks between updates of the enemy at index i
+    private int interval(int i, Player player) {
+        EnemyState state = entities.ai.state[i];
+        if (state == EnemyState.ALERTED || state == EnemyState.MOVING || entities.perceptions.noticedSomething(i)) return 1;
+        Transforms transforms = entities.transforms;
+        float dx = player.getX() - transforms.x[i];
+        float dy = player.getY() - transforms.y[i];
+        if (dx * dx + dy * dy <= NEAR_DISTANCE * NEAR_DISTANCE) return 1;
+        return state == EnemyState.CAUTIOUS ? CAUTIOUS_INTERVAL : UNAWARE_INTERVAL;
+    }
+}
@@ -0,0 +1,50 @@
+package com.stormbreaker;
+
+import java.util.Arrays;
+
+import com.stormbreaker.Enemy.EnemyState;
+import com.stormbreaker.ecs.ComponentArray;
+
+/**
+ * Each enemy's state and the {@link AiScheduler}'s bookkeeping for it.
+ */
+public class AiStates extends ComponentArray {
+    public EnemyState[] state = new EnemyState[0];
+    public int[] ticksWaited = new int[0]; // ticks since its last turn, -1 until the scheduler first sees it
+    public float[] pendingDelta = new float[0]; // time it skipped, handed over on its next turn
+    public int[] lastAsked = new int[0]; // scheduler tick it was last asked about
+    public float[] slice = new float[0]; // seconds it updates with this tick, only meaningful while it has a turn
+
+    // a new enemy, unaware and not seen by the scheduler yet
+    public void init(int index) {
+        state[index] = EnemyState.UNAWARE;
+        ticksWaited[index] = -1;
+        pendingDelta[index] = 0f;
+        lastAsked[index] = 0;
+        slice[index] = 0f;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        state = Arrays.copyOf(state, capacity);
+        ticksWaited = Arrays.copyOf(ticksWaited, capacity);
+        pendingDelta = Arrays.copyOf(pendingDelta, capacity);
+        lastAsked = Arrays.copyOf(lastAsked, capacity);
+        slice = Arrays.copyOf(slice, capacity);
+    }
+
+    @Override
+    protected void remove(int index, int size) {
+        shiftDown(state, index, size);
+        shiftDown(ticksWaited, index, size);
+        shiftDown(pendingDelta, index, size);
+        shiftDown(lastAsked, index, size);
+        shiftDown(slice, index, size);
+        state[size - 1] = null;
+    }
+
+    @Override
+    protected void clear(int size) {
+        Arrays.fill(state, 0, size, null);
+    }
+}
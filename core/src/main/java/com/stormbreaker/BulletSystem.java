@@ -0,0 +1,191 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.stormbreaker.tools.CollisionGrid;
+
+/**
+ * Every bullet in flight, stored as parallel arrays instead of one object per bullet.
+ *
+ * Live bullets always fill indices 0 .. size - 1. A bullet that hits something or leaves the
+ * map is removed by moving the last bullet into its slot, so the free slots are simply the
+ * tail of the arrays: spawning writes to index size and never allocates once the arrays have
+ * grown to the level's peak, and the update loop walks a dense run of floats.
+ *
+ * Directions are unit vectors, all bullets fly at {@link #SPEED}. Owners are kept so a bullet
+ * never hits whoever fired it; null marks grenade shrapnel, which can hit anyone.
+ *
+ * Each tick a bullet sweeps the whole segment it covers once: the obstacle grid gives the
+ * earliest wall it enters, then the enemies and the player are only tested along the part of
+ * the segment before that wall, and whichever is entered first takes the hit.
+ */
+public class BulletSystem {
+    public static final float SPEED = 3000f;
+    public static final int DEFAULT_DAMAGE = 50;
+
+    private int size;
+    private float[] x;
+    private float[] y;
+    private float[] previousX; // position when the current simulation tick started
+    private float[] previousY;
+    private float[] dirX;
+    private float[] dirY;
+    private int[] damage;
+    private Character[] owner;
+
+    public BulletSystem() {
+        this(256);
+    }
+
+    public BulletSystem(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    /**
+     * Adds a bullet at (startX, startY) flying along the unit vector (directionX, directionY).
+     */
+    public void spawn(float startX, float startY, float directionX, float directionY, Character shooter, int bulletDamage) {
+        if (size == x.length) allocate(size * 2);
+        x[size] = startX;
+        y[size] = startY;
+        previousX[size] = startX;
+        previousY[size] = startY;
+        dirX[size] = directionX;
+        dirY[size] = directionY;
+        damage[size] = bulletDamage;
+        owner[size] = shooter;
+        size++;
+    }
+
+    /**
+     * Moves every bullet by delta seconds, applies hits, and drops bullets that hit something
+     * or left the map.
+     */
+    public void update(float delta, EnemyGrid enemies, CollisionGrid obstacles, Player player, float worldWidth, float worldHeight) {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+
+        float distance = SPEED * delta; // Total distance a bullet travels this tick
+        float playerRadius = player.getCollisionRectangle().getWidth() / 2f;
+
+        // backwards, so the bullet swapped into a freed slot has already been updated
+        for (int i = size - 1; i >= 0; i--) {
+            if (sweep(i, distance, enemies, obstacles, player, playerRadius)
+                || x[i] < 0 || x[i] > worldWidth || y[i] < 0 || y[i] > worldHeight) {
+                remove(i);
+            }
+        }
+    }
+
+    // moves bullet i by distance, resolving the first thing in its way; true if it hit something
+    private boolean sweep(int i, float distance, EnemyGrid enemies, CollisionGrid obstacles, Player player, float playerRadius) {
+        Character shooter = owner[i];
+        float startX = x[i];
+        float startY = y[i];
+        float endX = startX + dirX[i] * distance;
+        float endY = startY + dirY[i] * distance;
+
+        // nothing past the first wall can be hit, so cut the segment there
+        float wallTime = obstacles.firstHitTime(startX, startY, endX, endY);
+        if (wallTime >= 0f) {
+            endX = startX + (endX - startX) * wallTime;
+            endY = startY + (endY - startY) * wallTime;
+        }
+
+        // earliest enemy body circle along the rest (skips dead ones and the bullet's owner)
+        Enemy enemy = enemies.firstAlongSegment(startX, startY, endX, endY, shooter);
+        float enemyTime = enemy != null ? enemies.getLastHitTime() : -1f;
+
+        // the player, unless they fired it
+        float playerTime = shooter != player
+            ? EnemyGrid.segmentCircleEntry(startX, startY, endX, endY, player.getX(), player.getY(), playerRadius)
+            : -1f;
+
+        // ties go to the enemy, then the player, as when they were checked in that order
+        if (enemy != null && (playerTime < 0f || enemyTime <= playerTime)) {
+            enemy.takeDamage(damage[i]);
+            // Make enemy turn towards the player if hit
+            if (shooter instanceof Player playerOwner) {
+                enemy.alertAndTurnTo(playerOwner.getX(), playerOwner.getY());
+            }
+            return true;
+        }
+        if (playerTime >= 0f) {
+            player.takeDamage(damage[i]);
+            return true;
+        }
+        if (wallTime >= 0f) return true;
+
+        x[i] = endX;
+        y[i] = endY;
+        return false;
+    }
+
+    // moves the last bullet into slot i
+    private void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        previousX[i] = previousX[last];
+        previousY[i] = previousY[last];
+        dirX[i] = dirX[last];
+        dirY[i] = dirY[last];
+        damage[i] = damage[last];
+        owner[i] = owner[last];
+        owner[last] = null; // don't keep dead enemies reachable
+    }
+
+    // alpha blends between the position before and after the last simulation tick
+    public void render(SpriteBatch batch, float alpha) {
+        if (size == 0) return;
+        TextureRegion bulletTexture = Sprites.get("bullet1");
+        float drawWidth = 16f;
+        float drawHeight = 5f;
+        for (int i = 0; i < size; i++) {
+            float drawX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            float drawY = previousY[i] + (y[i] - previousY[i]) * alpha;
+            float angle = MathUtils.atan2(dirY[i], dirX[i]) * MathUtils.radiansToDegrees;
+            batch.draw(
+                bulletTexture,
+                drawX - drawWidth / 2f, drawY - drawHeight / 2f,
+                drawWidth / 2f, drawHeight / 2f,
+                drawWidth, drawHeight,
+                1f, 1f,
+                angle
+            );
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(owner, 0, size, null);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        x = copy(x, capacity);
+        y = copy(y, capacity);
+        previousX = copy(previousX, capacity);
+        previousY = copy(previousY, capacity);
+        dirX = copy(dirX, capacity);
+        dirY = copy(dirY, capacity);
+        int[] newDamage = new int[capacity];
+        Character[] newOwner = new Character[capacity];
+        if (damage != null) {
+            System.arraycopy(damage, 0, newDamage, 0, size);
+            System.arraycopy(owner, 0, newOwner, 0, size);
+        }
+        damage = newDamage;
+        owner = newOwner;
+    }
+
+    private float[] copy(float[] values, int capacity) {
+        float[] grown = new float[capacity];
+        if (values != null) System.arraycopy(values, 0, grown, 0, size);
+        return grown;
+    }
+}
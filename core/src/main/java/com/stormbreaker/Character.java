@@ -1,47 +1,70 @@
 package com.stormbreaker;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 public abstract class Character {
     protected float x, y;
+    protected float previousX, previousY; // position when the current simulation tick started
     protected float rotation;
     protected float speed;
-    protected Texture texture;
+    protected TextureRegion texture; // region of the shared sprite atlas, never disposed here
 
-    public Character(float x, float y, float speed, String texturePath) {
+    public Character(float x, float y, float speed, String spriteName) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.speed = speed;
-        this.texture = new Texture(Gdx.files.internal(texturePath));
+        this.texture = Sprites.get(spriteName);
     }
 
     public void render(SpriteBatch batch) {
+        render(batch, 1f);
+    }
+
+    // alpha is how far the frame is between the previous simulation tick (0) and the last one (1)
+    public void render(SpriteBatch batch, float alpha) {
+        float width = texture.getRegionWidth();
+        float height = texture.getRegionHeight();
         batch.draw(
             texture,
-            x - texture.getWidth() / 2f,
-            y - texture.getHeight() / 2f,
-            texture.getWidth() / 2f,
-            texture.getHeight() / 2f,
-            texture.getWidth(),
-            texture.getHeight(),
+            getRenderX(alpha) - width / 2f,
+            getRenderY(alpha) - height / 2f,
+            width / 2f,
+            height / 2f,
+            width,
+            height,
             1f, 1f,
-            rotation,
-            0, 0,
-            texture.getWidth(),
-            texture.getHeight(),
-            false, false
+            getRotation()
         );
     }
 
+    // sprites belong to the shared atlas, subclasses release their own sounds
     public void dispose() {
-        texture.dispose();
+    }
+
+    // called by GameSimulation before each tick so rendering can blend between ticks
+    public void savePreviousPosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    public float getRenderX(float alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    public float getRenderY(float alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
+    public float getRotation() {
+        return rotation;
     }
 
     public abstract void update(float delta);
     
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.stormbreaker.Enemy.DropType;
+
+/**
+ * Items dropped by dead enemies, lying where they died until the player walks over them.
+ * Stored as parallel arrays like {@link BulletSystem}; a picked up drop is removed by moving
+ * the last one into its slot.
+ */
+public class DropSystem {
+    private static final float PICKUP_RANGE = 20f;
+    private static final float ICON_SIZE = 16f;
+
+    // drop icons, by DropType ordinal
+    private static final String[] ICONS = {"pistolammo", "shotgunammo", "carbineammo", "medkit"};
+
+    private int size;
+    private float[] x;
+    private float[] y;
+    private DropType[] type;
+    private TextureRegion[] icons;
+
+    public DropSystem() {
+        allocate(16);
+    }
+
+    public void spawn(float dropX, float dropY, DropType dropType) {
+        if (size == x.length) allocate(size * 2);
+        x[size] = dropX;
+        y[size] = dropY;
+        type[size] = dropType;
+        size++;
+    }
+
+    // gives the player every drop in pickup range they have room for
+    public void pickUp(Player player) {
+        for (int i = size - 1; i >= 0; i--) {
+            float dx = player.getX() - x[i];
+            float dy = player.getY() - y[i];
+            if (dx * dx + dy * dy <= PICKUP_RANGE * PICKUP_RANGE && player.pickUpItem(type[i].name())) {
+                remove(i);
+            }
+        }
+    }
+
+    public void render(SpriteBatch batch) {
+        if (size == 0) return;
+        if (icons == null) {
+            icons = new TextureRegion[ICONS.length];
+            for (int i = 0; i < ICONS.length; i++) {
+                icons[i] = Sprites.get(ICONS[i]);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            batch.draw(icons[type[i].ordinal()], x[i] - ICON_SIZE / 2, y[i] - ICON_SIZE / 2, ICON_SIZE, ICON_SIZE);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(type, 0, size, null);
+        size = 0;
+    }
+
+    // moves the last drop into slot i
+    private void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        type[i] = type[last];
+        type[last] = null;
+    }
+
+    private void allocate(int capacity) {
+        float[] newX = new float[capacity];
+        float[] newY = new float[capacity];
+        DropType[] newType = new DropType[capacity];
+        if (x != null) {
+            System.arraycopy(x, 0, newX, 0, size);
+            System.arraycopy(y, 0, newY, 0, size);
+            System.arraycopy(type, 0, newType, 0, size);
+        }
+        x = newX;
+        y = newY;
+        type = newType;
+    }
+}
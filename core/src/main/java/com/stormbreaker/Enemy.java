@@ -1,13 +1,16 @@
 package com.stormbreaker;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.stormbreaker.ai.TickMemo;
 import com.stormbreaker.tools.AStarPathfinder;
+import com.stormbreaker.tools.CollisionGrid;
 import com.stormbreaker.tools.CollisionRectangle;
+import com.stormbreaker.tools.FlowFieldCache;
+import com.stormbreaker.tools.PathRequestService;
 
 public class Enemy extends NPC {
 
@@ -19,16 +22,13 @@ public class Enemy extends NPC {
     private EnemyType type = EnemyType.AGGRESSIVE;
 
     private int health = 100;
-    private Texture[] deathFrames; // array for death frames textures
+    private TextureRegion[] deathFrames; // array for death frames textures
     private float deathElapsedTime = 0f;
     private float deathFrameDuration = 0.2f; // seconds per frame
     private Sound deathSound;
     private Sound shootSound; // Add this field for shooting sound
     private boolean dead = false;
     private final float enemyRadius;
-    // the radius of the enemy for player detection, 200 degrees in front of the enemy
-    // this is used to check if the player is in the enemy's field of view
-    private final float visionAngle = 100f;
     // Shot cooldown time
     private final float shotCooldown = 0.15f;
     // Time since last shot
@@ -39,8 +39,7 @@ public class Enemy extends NPC {
     private static final float REACTION_TIME = 0.5f;
     // Collision rectangle for the enemy
     private final CollisionRectangle collisionRectangle;
-    // Vision distance for the enemy
-    private final float visionDistance = 1000f;
+    private final CollisionRectangle proposedRectangle; // scratch for enemy-enemy checks
     // Bool to check if the enemy wants to shoot
     private boolean wantsToShoot = false;
     // When the enemy wants to shoot
@@ -62,6 +61,36 @@ public class Enemy extends NPC {
     private int pathIndex = 0;
     private float pathRecalcCooldown = 0f;
     private static final float PATH_RECALC_INTERVAL = 0.5f; // seconds
+    // shared per-target flow fields; when set they replace per-enemy path searches while chasing
+    private FlowFieldCache flowFields;
+    private final Vector2 chaseWaypoint = new Vector2();
+    // returned by nextChaseWaypoint while a worker is still searching, only compared by identity
+    private static final Vector2 AWAITING_PATH = new Vector2();
+    // when set, path searches run on background workers instead of inside commit()
+    private PathRequestService pathRequests;
+    private Vector2 pendingPathGoal = null; // goal of the request in flight, null if none
+    private boolean pathFailed = false;
+    // position, hitbox, what it perceived and its AI state live in the components of this
+    // entity; once retired the corpse keeps where it lies in Character's fields instead
+    private final EnemyEntities entities;
+    private int entity;
+    // sensor results of the behaviour tree, per tick
+    private final TickMemo memo = new TickMemo();
+    // what decide() and commit() were called with, for the tree's actions
+    private float tickDelta;
+    private Player tickPlayer;
+    private CollisionGrid tickCollisions;
+    private EnemyGrid tickEnemies;
+    // what decide() wants done this tick, carried out by commit(); wantsToShoot is one as well
+    private float stepX, stepY; // step to take, every move the tree asked for added up
+    private boolean charging; // the step heads for the player, getting through makes it MOVING
+    private boolean turning;
+    private float turnTarget; // rotation to turn towards, the last one asked for wins
+    private Vector2 pathGoal; // walk the path towards this, lastKnownPlayerPos or null
+    private boolean replanWanted; // stuck on the way, search a fresh path first
+    private boolean exploding; // bomber: blow up where it ends up
+    private boolean playerVectorFresh; // playerDx, playerDy and playerDistance are this tick's
+    private float playerDx, playerDy, playerDistance;
 
     public enum EnemyState {
         UNAWARE,
@@ -70,8 +99,6 @@ public class Enemy extends NPC {
         MOVING
     }
 
-    private EnemyState state = EnemyState.UNAWARE;
-    
     //death animation variables 
     private float timeSinceDeath = 0f;
     private boolean disposeAfterDeath = false;
@@ -85,19 +112,17 @@ public class Enemy extends NPC {
     private static final float MIN_MOVE_DIST = 2f; // minimum distance considered as movement
 
     private boolean hasExploded = false;
+    private static final float BOMBER_SPEED_FACTOR = 1.5f; // bombers rush in 50% faster
     
  // drop item system
     public enum DropType { PISTOL_AMMO, SHOTGUN_AMMO, CARBINE_AMMO, MEDKIT }
 
-    private DropType dropType = null;
-    private Texture dropTexture = null;
-    private boolean dropCollected = false;
-    
- // drop icons
-    private static final Texture pistolDropIcon = new Texture(Gdx.files.internal("pistolammo.png"));
-    private static final Texture shotgunDropIcon = new Texture(Gdx.files.internal("shotgunammo.png"));
-    private static final Texture carbineDropIcon = new Texture(Gdx.files.internal("carbineammo.png"));
-    private static final Texture medkitDropIcon = new Texture(Gdx.files.internal("medkit.png"));
+    private DropType dropType = null; // rolled on death, GameSimulation puts it in its DropSystem
+
+    // possible last frames of the death animation, one is picked per enemy
+    private static final String[] FINAL_DEATH_FRAMES = {
+        "newdeath1", "newdeath2", "newdeath3", "newdeath4", "newdeath5", "death33"
+    };
 
 
 
@@ -117,54 +142,91 @@ public class Enemy extends NPC {
     private float alertedTimer = 0f;
     private static final float MIN_ALERTED_TIME = 1.0f; // seconds
 
-    public Enemy(float x, float y, float speed, String texturePath) {
-        super(x, y, speed, texturePath);
-        this.enemyRadius = texture.getWidth() / 2f;
-        this.collisionRectangle = new CollisionRectangle(x - (texture.getWidth() / 4f), y - (texture.getHeight() / 4f), texture.getWidth() / 2, texture.getHeight() / 2);
+    public Enemy(EnemyEntities entities, float x, float y, float speed, String spriteName) {
+        super(x, y, speed, spriteName);
+        this.enemyRadius = texture.getRegionWidth() / 2f;
+        this.entities = entities;
+        this.entity = entities.store.create();
+        int i = index();
+        entities.transforms.set(i, x, y, 0f);
+        entities.colliders.set(i, texture.getRegionWidth() / 4f, texture.getRegionHeight() / 4f);
+        entities.perceptions.heardSound[i] = null;
+        entities.perceptions.playerInSight[i] = false;
+        entities.ai.init(i);
+        this.collisionRectangle = new CollisionRectangle(x - (texture.getRegionWidth() / 4f), y - (texture.getRegionHeight() / 4f), texture.getRegionWidth() / 2, texture.getRegionHeight() / 2);
+        this.proposedRectangle = new CollisionRectangle(x - (texture.getRegionWidth() / 4f), y - (texture.getRegionHeight() / 4f), texture.getRegionWidth() / 2, texture.getRegionHeight() / 2);
      // Load death animation frames
-        deathFrames = new Texture[] {
-        	
-            new Texture(Gdx.files.internal("death11.png")),
-            new Texture(Gdx.files.internal("death22.png")),
-            new Texture(Gdx.files.internal("death33.png")),
-            new Texture(Gdx.files.internal("death44.png"))
-            
-        };
-        
-     // randon death frame for enemy death
-        Texture[] finalDeathFrames = new Texture[] {
-            new Texture(Gdx.files.internal("newdeath1.png")),
-            new Texture(Gdx.files.internal("newdeath2.png")),
-            new Texture(Gdx.files.internal("newdeath3.png")),
-            new Texture(Gdx.files.internal("newdeath4.png")),
-            new Texture(Gdx.files.internal("newdeath5.png")),
-            new Texture(Gdx.files.internal("death33.png"))
-        };
+        deathFrames = Sprites.frames("death11", "death22", "death33", "death44");
 
         // replace last death frame with a random one
-        int randomIndex = (int)(Math.random() * finalDeathFrames.length);
-        deathFrames[deathFrames.length - 1] = finalDeathFrames[randomIndex];
+        int randomIndex = (int)(Math.random() * FINAL_DEATH_FRAMES.length);
+        deathFrames[deathFrames.length - 1] = Sprites.get(FINAL_DEATH_FRAMES[randomIndex]);
 
 
         
      // Load death sound from assets
-        deathSound = Gdx.audio.newSound(Gdx.files.internal("deathaudio.ogg"));
+        deathSound = GameAssets.sound(GameAssets.ENEMY_DEATH);
         // Load shoot sound from assets (reuse pistol for now)
-        shootSound = Gdx.audio.newSound(Gdx.files.internal("carbine_shot.ogg"));
+        shootSound = GameAssets.sound(GameAssets.CARBINE_SHOT);
 
     }
 
-    public Enemy(float x, float y, float speed, String texturePath, EnemyType type) {
-        this(x, y, speed, texturePath);
+    public Enemy(EnemyEntities entities, float x, float y, float speed, String texturePath, EnemyType type) {
+        this(entities, x, y, speed, texturePath);
         this.type = type;
     }
 
     public float getX() {
-        return x;
+        int i = index();
+        return i >= 0 ? entities.transforms.x[i] : x;
     }
     
     public float getY() {
-        return y;
+        int i = index();
+        return i >= 0 ? entities.transforms.y[i] : y;
+    }
+
+    @Override
+    public float getRenderX(float alpha) {
+        int i = index();
+        if (i < 0) return super.getRenderX(alpha);
+        float previous = entities.transforms.previousX[i];
+        return previous + (entities.transforms.x[i] - previous) * alpha;
+    }
+
+    @Override
+    public float getRenderY(float alpha) {
+        int i = index();
+        if (i < 0) return super.getRenderY(alpha);
+        float previous = entities.transforms.previousY[i];
+        return previous + (entities.transforms.y[i] - previous) * alpha;
+    }
+
+    @Override
+    public void savePreviousPosition() {
+        int i = index();
+        if (i < 0) return; // corpses don't move
+        entities.transforms.previousX[i] = entities.transforms.x[i];
+        entities.transforms.previousY[i] = entities.transforms.y[i];
+    }
+
+    /**
+     * Takes a dead enemy out of the entity store. Where it lies and how it faces are copied to
+     * its own fields for the death animation and corpse, the rest of its components go.
+     */
+    public void retire() {
+        int i = index();
+        if (i < 0) return;
+        x = previousX = entities.transforms.x[i];
+        y = previousY = entities.transforms.y[i];
+        rotation = entities.transforms.rotation[i];
+        entities.store.destroy(entity);
+        entity = -1;
+    }
+
+    // dense index of this enemy's entity, -1 once retired
+    int index() {
+        return entities.store.indexOf(entity);
     }
     //Empty update method for the enemy class to satisfy the abstract method in the NPC class
     
@@ -179,523 +241,405 @@ public class Enemy extends NPC {
     }
 
     
-    // Unified update method: handles both vision and sound detection
-    public void update(float delta, Player player, Array<CollisionRectangle> mapCollisions, Array<SoundEvent> soundEvents, Array<Enemy> enemies) {
-    	// Animate death and dispose after 5 seconds
-    	if (dead && !disposeAfterDeath) {
-    	    deathElapsedTime += delta;
-    	    // if (deathElapsedTime >= deathFrameDuration * deathFrames.length) {
-    	    //     disposeAfterDeath = true;
-    	    // }
-    	}
-
+    // steps the death animation, false once it shows its last frame and can stop being stepped
+    public boolean advanceDeath(float delta) {
+        deathElapsedTime += delta;
+        return deathElapsedTime < deathFrameDuration * deathFrames.length;
+    }
+
+    /**
+     * Second half of the think phase, after {@link PerceptionSystem}: runs the behaviour tree of
+     * this enemy's type over the slice the AiScheduler gave it, acting on what it perceived.
+     * The tree updates the enemy's state and timers but leaves the world alone: where it wants
+     * to step, turn, walk to and shoot goes in its intent fields for {@link #commit}. It only
+     * writes this enemy's own fields and components, so enemies can decide in parallel. See
+     * ai/*.json for the trees.
+     */
+    public void decide(Player player) {
+        // corpses only play their death animation, see advanceDeath
         if (dead) return;
-
-        // ALERTED STATE TIMER LOGIC
-        if (state == EnemyState.ALERTED && alertedTimer > 0f) {
-            alertedTimer -= delta;
-            // Always rotate towards targetRotation while timer is active
-            smoothRotateTowards(targetRotation, delta);
-            // Prevent state from being changed away from ALERTED until timer expires
-            // (return early to skip other state logic)
-            if (alertedTimer > 0f) return;
+        tickDelta = entities.ai.slice[index()];
+        tickPlayer = player;
+        playerVectorFresh = false;
+        // the type is looked up every tick, a passive enemy may have turned aggressive
+        EnemyBehaviors.forType(type).tick(this, memo);
+        tickPlayer = null;
+    }
+
+    /**
+     * Commit phase of a tick, on the render thread in list order: carries out what
+     * {@link #decide} wanted. The step is tried against the walls and the enemies that already
+     * moved this tick, so when two want the same spot the first one gets it. Paths are searched
+     * or handed to the workers here, and a bomber blows up. A shot stays in wantsToShoot for
+     * the caller to spawn.
+     */
+    public void commit(CollisionGrid mapCollisions, EnemyGrid enemies) {
+        if (dead) return;
+        tickCollisions = mapCollisions;
+        tickEnemies = enemies;
+        if (replanWanted) replan();
+        if ((stepX != 0f || stepY != 0f) && tryMove(stepX, stepY) && charging) {
+            setState(EnemyState.MOVING);
         }
+        if (turning) smoothRotateTowards(turnTarget, tickDelta);
+        if (pathGoal != null) followPath();
+        moveHitbox(collisionRectangle, getX(), getY());
+        if (exploding) explode();
+        clearIntents();
+        tickCollisions = null;
+        tickEnemies = null;
+    }
 
-        // SOUND DETECTION
-        for (SoundEvent se : soundEvents) {
-            float dist = Vector2.dst(x, y, se.getPosition().x, se.getPosition().y);
-            if (dist <= se.getCurrentRadius()) {
-                if (type == EnemyType.PASSIVE) {
-                    float dx = se.getPosition().x - x;
-                    float dy = se.getPosition().y - y;
-                    float angleToSound = (float) Math.toDegrees(Math.atan2(dy, dx));
-                    this.soundTargetRotation = angleToSound;
-                    if (state == EnemyState.UNAWARE) state = EnemyState.CAUTIOUS;
-                    wantsToShoot = true;
-                    // Set cautious sound turn speed to rotationSpeed * 2
-                    if (state == EnemyState.CAUTIOUS) {
-                        this.currentRotationSpeed = rotationSpeed * 2f;
-                    }
-                    break;
-                } else {
-                    // AGGRESSIVE (default) logic
-                    lastKnownPlayerPos = new Vector2(se.getPosition());
-                    playerRecentlySeen = false;
-                    state = EnemyState.CAUTIOUS;
-                    currentPath = null;
-                    pathIndex = 0;
-                    currentRotationSpeed = fastRotationSpeed;
-                    break;
-                }
-            }
-        }
+    // --- sensors, memoised per tick by the tree ---
 
-        if (type == EnemyType.PASSIVE) {
-            //PASSIVE VISION LOGIC
-            if (state == EnemyState.CAUTIOUS && soundTargetRotation != null) {
-                smoothRotateTowards(soundTargetRotation, delta);
-                // Optionally, clear soundTargetRotation if close enough
-                float angleDiff = Math.abs(((rotation - soundTargetRotation + 540) % 360) - 180);
-                if (angleDiff < 2f) {
-                    soundTargetRotation = null;
-                }
-            }
-            // SCANNING LOGIC FOR CAUTIOUS, PASSIVE ENEMIES
-            if (state == EnemyState.CAUTIOUS && soundTargetRotation == null) {
-                scanTimer += delta;
-                if (scanTargetAngle == null || Math.abs(((rotation - scanTargetAngle + 540) % 360) - 180) < 2f) {
-                    // If reached target or no target, wait for interval then pick next scan angle
-                    if (scanTimer >= scanInterval) {
-                        scanTimer = 0f;
-                        // Next scan angle: rotate 90 degrees clockwise
-                        float nextAngle = (rotation + 90f) % 360f;
-                        scanTargetAngle = nextAngle;
-                    }
-                }
-                if (scanTargetAngle != null) {
-                    smoothRotateTowards(scanTargetAngle, delta);
-                }
-            } else {
-                // Reset scan if not in CAUTIOUS state
-                scanTimer = 0f;
-                scanTargetAngle = null;
-            }
-            float dx = player.getX() - this.x;
-            float dy = player.getY() - this.y;
-            float distance = (float) Math.sqrt(dx * dx + dy * dy);
-            boolean playerVisible = false;
-            if (distance <= visionDistance) {
-                float angleToPlayer = (float) Math.toDegrees(Math.atan2(dy, dx));
-                float enemyFacingAngle = rotation;
-                angleToPlayer = (angleToPlayer + 360) % 360;
-                enemyFacingAngle = (enemyFacingAngle + 360) % 360;
-                float angleDifference = Math.abs(angleToPlayer - enemyFacingAngle);
-                if (angleDifference > 180) angleDifference = 360 - angleDifference;
-                if (angleDifference <= visionAngle / 2f) {
-                    // Line-of-sight check
-                    int steps = (int) (distance / 10f);
-                    boolean blocked = false;
-                    for (int i = 1; i <= steps; i++) {
-                        float t = i / (float) steps;
-                        float checkX = this.x + dx * t;
-                        float checkY = this.y + dy * t;
-                        for (CollisionRectangle rect : mapCollisions) {
-                            if (rect.getX() <= checkX && checkX <= rect.getX() + rect.getWidth() &&
-                                rect.getY() <= checkY && checkY <= rect.getY() + rect.getHeight()) {
-                                blocked = true;
-                                break;
-                            }
-                        }
-                        if (blocked) break;
-                    }
-                    if (!blocked) {
-                        playerVisible = true;
-                    }
-                }
-            }
-            if (playerVisible) {
-                if (state != EnemyState.ALERTED) {
-                    // Only check conversion on transition to ALERTED
-                    if (type == EnemyType.PASSIVE && !checkedAggressiveConversion) {
-                        if (Math.random() < 0.2) {
-                            type = EnemyType.AGGRESSIVE;
-                        }
-                        checkedAggressiveConversion = true;
-                    }
-                }
-                state = EnemyState.ALERTED;
-                // Turn and shoot at player
-                float angleToPlayer = (float) Math.toDegrees(Math.atan2(dy, dx));
-                this.targetRotation = angleToPlayer;
-                // Set fast turn speed when player enters cone of vision
-                this.currentRotationSpeed = fastRotationSpeed;
-                smoothRotateTowards(targetRotation, delta);
-                // Reaction timer logic
-                reactionTimer += delta;
-                if (reactionTimer >= REACTION_TIME) {
-                    timeSinceLastShot += delta;
-                    if (timeSinceLastShot >= shotCooldown) {
-                        wantsToShoot = true;
-                        float normShoot = (float)Math.sqrt(dx * dx + dy * dy);
-                        shootDirX = dx / normShoot;
-                        shootDirY = dy / normShoot;
-                        timeSinceLastShot = 0f;
-                    } else {
-                        wantsToShoot = false;
-                    }
-                } else {
-                    wantsToShoot = false;
-                }
-            } else {
-                // Reset reaction timer if player not visible
-                reactionTimer = 0f;
-                if (state == EnemyState.ALERTED) {
-                    state = EnemyState.CAUTIOUS;
-                    checkedAggressiveConversion = false; // Reset when losing sight
-                }
-                wantsToShoot = false;
-            }
-            return;
-        } else if (type == EnemyType.AGGRESSIVE) {
-            //AGGRESSIVE CAUTIOUS SCANNING LOGIC
-            if (state == EnemyState.CAUTIOUS && soundTargetRotation != null) {
-                smoothRotateTowards(soundTargetRotation, delta);
-                float angleDiff = Math.abs(((rotation - soundTargetRotation + 540) % 360) - 180);
-                if (angleDiff < 2f) {
-                    soundTargetRotation = null;
-                }
-            }
-            if (state == EnemyState.CAUTIOUS && soundTargetRotation == null) {
-                scanTimer += delta;
-                if (scanTargetAngle == null || Math.abs(((rotation - scanTargetAngle + 540) % 360) - 180) < 2f) {
-                    if (scanTimer >= scanInterval) {
-                        scanTimer = 0f;
-                        float nextAngle = (rotation + 90f) % 360f;
-                        scanTargetAngle = nextAngle;
-                    }
-                }
-                if (scanTargetAngle != null) {
-                    smoothRotateTowards(scanTargetAngle, delta);
-                }
-            } else {
-                scanTimer = 0f;
-                scanTargetAngle = null;
-            }
-        }
+    boolean seesPlayer() {
+        return entities.perceptions.playerInSight[index()];
+    }
 
-        // BOMBER logic: chase like AGGRESSIVE, but no shooting, explodes on proximity
-        if (type == EnemyType.BOMBER) {
-            // Increase speed by 50%
-            float bomberSpeed = speed * 1.5f;
-            // Calculate vector to player
-            float dx = player.getX() - this.x;
-            float dy = player.getY() - this.y;
-            float distance = (float) Math.sqrt(dx * dx + dy * dy);
-            boolean playerVisible = false;
-            if (distance <= visionDistance) {
-                float angleToPlayer = (float) Math.toDegrees(Math.atan2(dy, dx));
-                float enemyFacingAngle = rotation;
-                angleToPlayer = (angleToPlayer + 360) % 360;
-                enemyFacingAngle = (enemyFacingAngle + 360) % 360;
-                float angleDifference = Math.abs(angleToPlayer - enemyFacingAngle);
-                if (angleDifference > 180) angleDifference = 360 - angleDifference;
-                if (angleDifference <= visionAngle / 2f) {
-                    // Line-of-sight check (step-based raycast)
-                    int steps = (int) (distance / 10f);
-                    boolean blocked = false;
-                    for (int i = 1; i <= steps; i++) {
-                        float t = i / (float) steps;
-                        float checkX = this.x + dx * t;
-                        float checkY = this.y + dy * t;
-                        for (CollisionRectangle rect : mapCollisions) {
-                            if (rect.getX() <= checkX && checkX <= rect.getX() + rect.getWidth() &&
-                                rect.getY() <= checkY && checkY <= rect.getY() + rect.getHeight()) {
-                                blocked = true;
-                                break;
-                            }
-                        }
-                        if (blocked) break;
-                    }
-                    if (!blocked) {
-                        playerVisible = true;
-                    }
-                }
-            }
-            if (playerVisible) {
-                lastKnownPlayerPos = new Vector2(player.getX(), player.getY());
-                currentPath = null;
-                pathIndex = 0;
-                // Move directly toward player
-                float moveSpeed = bomberSpeed * delta;
-                float norm = (float) Math.sqrt(dx * dx + dy * dy);
-                if (norm > 1e-3) {
-                    float moveX = (dx / norm) * moveSpeed;
-                    float moveY = (dy / norm) * moveSpeed;
-                    collisionRectangle.move(x + moveX - (texture.getWidth() / 4f), y + moveY - (texture.getHeight() / 4f));
-                    boolean collides = false;
-                    for (CollisionRectangle rect : mapCollisions) {
-                        if (collisionRectangle.collisionCheck(rect)) {
-                            collides = true;
-                            break;
-                        }
-                    }
-                    if (!collides && !isCollidingWithEnemies(x + moveX, y + moveY, enemies)) {
-                        x += moveX;
-                        y += moveY;
-                        state = EnemyState.MOVING;
-                    } else {
-                        collisionRectangle.move(x - (texture.getWidth() / 4f), y - (texture.getHeight() / 4f));
-                    }
-                }
-                // Set target rotation to match the angle to player (in degrees)
-                targetRotation = (float) Math.toDegrees(Math.atan2(dy, dx));
-                smoothRotateTowards(targetRotation, delta);
-                // If close enough, explode
-                if (!hasExploded && distance < 40f) {
-                    hasExploded = true;
-                    dead = true;
-                    if (deathSound != null) deathSound.play();
-                    // Use grenade explosion logic
-                    if (levelScreenListener != null) {
-                        levelScreenListener.createGrenadeExplosion(x, y);
-                    }
-                    return;
-                }
-            } else if (lastKnownPlayerPos != null) {
-                // Pathfind to last known position
-                pathRecalcCooldown -= delta;
-                if (pathfinder != null && (currentPath == null || pathIndex >= currentPath.size || pathRecalcCooldown <= 0f)) {
-                    currentPath = pathfinder.findPath(new Vector2(x, y), lastKnownPlayerPos);
-                    pathIndex = 0;
-                    pathRecalcCooldown = PATH_RECALC_INTERVAL;
-                }
-                if (currentPath != null && pathIndex < currentPath.size) {
-                    Vector2 target = currentPath.get(pathIndex);
-                    float toTargetX = target.x - x;
-                    float toTargetY = target.y - y;
-                    float distToTarget = (float)Math.sqrt(toTargetX * toTargetX + toTargetY * toTargetY);
-                    if (distToTarget > ARRIVAL_THRESHOLD) {
-                        float moveSpeed = bomberSpeed * delta;
-                        float norm = (float) Math.sqrt(toTargetX * toTargetX + toTargetY * toTargetY);
-                        if (norm > 1e-3) {
-                            float moveX = (toTargetX / norm) * moveSpeed;
-                            float moveY = (toTargetY / norm) * moveSpeed;
-                            collisionRectangle.move(x + moveX - (texture.getWidth() / 4f), y + moveY - (texture.getHeight() / 4f));
-                            boolean collides = false;
-                            for (CollisionRectangle rect : mapCollisions) {
-                                if (collisionRectangle.collisionCheck(rect)) {
-                                    collides = true;
-                                    break;
-                                }
-                            }
-                            if (!collides && !isCollidingWithEnemies(x + moveX, y + moveY, enemies)) {
-                                x += moveX;
-                                y += moveY;
-                                state = EnemyState.MOVING;
-                            } else {
-                                collisionRectangle.move(x - (texture.getWidth() / 4f), y - (texture.getHeight() / 4f));
-                            }
-                        }
-                        // Rotate towards target
-                        float angleToTarget = (float)Math.toDegrees(Math.atan2(toTargetY, toTargetX));
-                        targetRotation = angleToTarget;
-                        smoothRotateTowards(targetRotation, delta);
-                    } else {
-                        pathIndex++;
-                        state = EnemyState.CAUTIOUS;
-                    }
-                } else {
-                    // Arrived at last known position, stop searching
-                    lastKnownPlayerPos = null;
-                    currentPath = null;
-                    pathIndex = 0;
-                    state = EnemyState.CAUTIOUS;
-                }
-            } else {
-                state = EnemyState.UNAWARE;
+    boolean hearsSound() {
+        return entities.perceptions.heardSound[index()] != null;
+    }
+
+    boolean isPlayerOutOfRange() {
+        return playerDistance() > PerceptionSystem.VISION_DISTANCE;
+    }
+
+    // --- actions, true if they did something ---
+
+    // keeps turning towards what alerted it until the alert timer runs out
+    boolean holdAlert() {
+        if (getState() != EnemyState.ALERTED || alertedTimer <= 0f) return false;
+        alertedTimer -= tickDelta;
+        turnTowards(targetRotation);
+        return alertedTimer > 0f;
+    }
+
+    // passive: turns towards the sound and gets cautious
+    boolean noticeSound() {
+        Vector2 source = entities.perceptions.heardSound[index()].getPosition();
+        soundTargetRotation = (float) Math.toDegrees(Math.atan2(source.y - getY(), source.x - getX()));
+        if (getState() == EnemyState.UNAWARE) setState(EnemyState.CAUTIOUS);
+        // Set cautious sound turn speed to rotationSpeed * 2
+        if (getState() == EnemyState.CAUTIOUS) currentRotationSpeed = rotationSpeed * 2f;
+        return true;
+    }
+
+    // goes to have a look where the sound came from
+    boolean investigateSound() {
+        lastKnownPlayerPos = new Vector2(entities.perceptions.heardSound[index()].getPosition());
+        playerRecentlySeen = false;
+        setState(EnemyState.CAUTIOUS);
+        currentPath = null;
+        pathIndex = 0;
+        currentRotationSpeed = fastRotationSpeed;
+        return true;
+    }
+
+    // while cautious: turns to the last sound heard, then scans 90 degrees at a time
+    boolean lookAround() {
+        if (getState() == EnemyState.CAUTIOUS && soundTargetRotation != null) {
+            turnTowards(soundTargetRotation);
+            float angleDiff = Math.abs(((getRotation() - soundTargetRotation + 540) % 360) - 180);
+            if (angleDiff < 2f) soundTargetRotation = null;
+        }
+        if (getState() != EnemyState.CAUTIOUS || soundTargetRotation != null) {
+            // Reset scan if not in CAUTIOUS state
+            scanTimer = 0f;
+            scanTargetAngle = null;
+            return false;
+        }
+        scanTimer += tickDelta;
+        if (scanTargetAngle == null || Math.abs(((getRotation() - scanTargetAngle + 540) % 360) - 180) < 2f) {
+            // If reached target or no target, wait for interval then pick next scan angle
+            if (scanTimer >= scanInterval) {
+                scanTimer = 0f;
+                scanTargetAngle = (getRotation() + 90f) % 360f;
             }
-            wantsToShoot = false; // Never shoot
-            return;
         }
+        if (scanTargetAngle != null) turnTowards(scanTargetAngle);
+        return true;
+    }
 
-        // VISION/AI STATE LOGIC
-        if (state == EnemyState.ALERTED || state == EnemyState.MOVING) {
-            if (lastPosition == null) lastPosition = new Vector2(x, y);
-            float distMoved = lastPosition.dst(x, y);
-            if (distMoved < MIN_MOVE_DIST) {
-                stuckTime += delta;
+    // nudges an enemy that has been trying to move without getting anywhere
+    boolean unstick() {
+        boolean nudged = false;
+        if (getState() == EnemyState.ALERTED || getState() == EnemyState.MOVING) {
+            if (lastPosition == null) lastPosition = new Vector2(getX(), getY());
+            if (lastPosition.dst(getX(), getY()) < MIN_MOVE_DIST) {
+                stuckTime += tickDelta;
             } else {
                 stuckTime = 0f;
-                lastPosition.set(x, y);
+                lastPosition.set(getX(), getY());
             }
             if (stuckTime > STUCK_THRESHOLD) {
-                if (pathfinder != null && lastKnownPlayerPos != null) {
-                    currentPath = pathfinder.findPath(new Vector2(x, y), lastKnownPlayerPos);
-                    pathIndex = 0;
-                    pathRecalcCooldown = PATH_RECALC_INTERVAL;
+                // flow fields are read fresh every frame, only a stored path needs replanning
+                if (flowFields == null && pathfinder != null && lastKnownPlayerPos != null) {
+                    replanWanted = true;
                 }
                 // Nudge enemy in a random direction to try to get unstuck
-                float angle = (float)(Math.random() * Math.PI * 2);
+                float angle = (float) (Math.random() * Math.PI * 2);
                 float nudgeDist = 5f;
-                float nudgeX = (float)Math.cos(angle) * nudgeDist;
-                float nudgeY = (float)Math.sin(angle) * nudgeDist;
-                collisionRectangle.move(x + nudgeX - (texture.getWidth() / 4f), y + nudgeY - (texture.getHeight() / 4f));
-                boolean collides = false;
-                for (CollisionRectangle rect : mapCollisions) {
-                    if (collisionRectangle.collisionCheck(rect)) {
-                        collides = true;
-                        break;
-                    }
-                }
-                if (!collides && !isCollidingWithEnemies(x + nudgeX, y + nudgeY, enemies)) {
-                    x += nudgeX;
-                    y += nudgeY;
-                } else {
-                    collisionRectangle.move(x - (texture.getWidth() / 4f), y - (texture.getHeight() / 4f));
-                }
+                step((float) Math.cos(angle) * nudgeDist, (float) Math.sin(angle) * nudgeDist);
+                nudged = true;
                 stuckTime = 0f;
-                lastPosition.set(x, y);
+                lastPosition.set(getX(), getY());
             }
         }
+        return nudged;
+    }
 
-        // Update the collision rectangle position
-        collisionRectangle.move(
-            x - (texture.getWidth() / 4f),
-            y - (texture.getHeight() / 4f)
-        );
-
-        // Calculate vector to player
-        float dx = player.getX() - this.x;
-        float dy = player.getY() - this.y;
-        float distance = (float) Math.sqrt(dx * dx + dy * dy);
-
-        // Check distance
-        if (distance > visionDistance) {
-            playerRecentlySeen = false;
-            state = EnemyState.UNAWARE;
-        } else {
-            // Calculate angle to player in world space
-            float angleToPlayer = (float) Math.toDegrees(Math.atan2(dy, dx));
-            float enemyFacingAngle = rotation;
-            angleToPlayer = (angleToPlayer + 360) % 360;
-            enemyFacingAngle = (enemyFacingAngle + 360) % 360;
-            float angleDifference = Math.abs(angleToPlayer - enemyFacingAngle);
-            if (angleDifference > 180) angleDifference = 360 - angleDifference;
-
-            // Check if player is outside vision cone
-            if (angleDifference <= visionAngle / 2f) {
-                // Line-of-sight check (simple step-based raycast)
-                int steps = (int) (distance / 10f);
-                boolean blocked = false;
-                for (int i = 1; i <= steps; i++) {
-                    float t = i / (float) steps;
-                    float checkX = this.x + dx * t;
-                    float checkY = this.y + dy * t;
-                    for (CollisionRectangle rect : mapCollisions) {
-                        if (rect.getX() <= checkX && checkX <= rect.getX() + rect.getWidth() &&
-                            rect.getY() <= checkY && checkY <= rect.getY() + rect.getHeight()) {
-                            blocked = true;
-                            break;
-                        }
-                    }
-                    if (blocked) break;
-                }
-                if (!blocked) {
-                    // === At this point, player is visible! ===
-                    lastKnownPlayerPos = new Vector2(player.getX(), player.getY());
-                    playerRecentlySeen = true;
-                    // Clear path when player is visible
-                    currentPath = null;
-                    pathIndex = 0;
-                    state = EnemyState.ALERTED;
-
-                    // Move towards the player
-                    float moveSpeed = speed * delta;
-                    float norm = (float) Math.sqrt(dx * dx + dy * dy);
-                    if (norm > 1e-3) {
-                        float moveX = (dx / norm) * moveSpeed;
-                        float moveY = (dy / norm) * moveSpeed;
-                        collisionRectangle.move(x + moveX - (texture.getWidth() / 4f), y + moveY - (texture.getHeight() / 4f));
-                        boolean collides = false;
-                        for (CollisionRectangle rect : mapCollisions) {
-                            if (collisionRectangle.collisionCheck(rect)) {
-                                collides = true;
-                                break;
-                            }
-                        }
-                        if (!collides && !isCollidingWithEnemies(x + moveX, y + moveY, enemies)) {
-                            x += moveX;
-                            y += moveY;
-                            state = EnemyState.MOVING;
-                        } else {
-                            collisionRectangle.move(x - (texture.getWidth() / 4f), y - (texture.getHeight() / 4f));
-                        }
-                    }
-                    // Set target rotation to match the angle to player (in degrees)
-                    targetRotation = angleToPlayer;
-                    smoothRotateTowards(targetRotation, delta);
-                    // Reaction timer logic
-                    reactionTimer += delta;
-                    if (reactionTimer >= REACTION_TIME) {
-                        timeSinceLastShot += delta;
-                        if (timeSinceLastShot >= shotCooldown) {
-                            wantsToShoot = true;
-                            float normShoot = (float)Math.sqrt(dx * dx + dy * dy);
-                            shootDirX = dx / normShoot;
-                            shootDirY = dy / normShoot;
-                            timeSinceLastShot = 0f;
-                        } else {
-                            wantsToShoot = false;
-                        }
-                    } else {
-                        wantsToShoot = false;
-                    }
-                    return;
-                }
-            }
-        }
-        // If here, player is not visible
+    // remembers where the player is, which also drops the path to where they were
+    boolean markPlayer() {
+        lastKnownPlayerPos = new Vector2(tickPlayer.getX(), tickPlayer.getY());
+        currentPath = null;
+        pathIndex = 0;
+        return true;
+    }
+
+    boolean alert() {
+        playerRecentlySeen = true;
+        setState(EnemyState.ALERTED);
+        return true;
+    }
+
+    // passive: the first time it spots the player there's a chance it turns aggressive
+    boolean rollForAggression() {
+        if (getState() == EnemyState.ALERTED || type != EnemyType.PASSIVE || checkedAggressiveConversion) return false;
+        if (Math.random() < 0.2) type = EnemyType.AGGRESSIVE;
+        checkedAggressiveConversion = true;
+        return true;
+    }
+
+    // Set fast turn speed when player enters cone of vision
+    boolean hurry() {
+        currentRotationSpeed = fastRotationSpeed;
+        return true;
+    }
+
+    // one step straight at the player
+    boolean charge() {
+        float distance = playerDistance();
+        if (distance <= 1e-3) return false;
+        float moveSpeed = moveSpeed() * tickDelta;
+        step(playerDx / distance * moveSpeed, playerDy / distance * moveSpeed);
+        charging = true;
+        return true;
+    }
+
+    boolean turnToPlayer() {
+        playerDistance();
+        targetRotation = (float) Math.toDegrees(Math.atan2(playerDy, playerDx));
+        turnTowards(targetRotation);
+        return true;
+    }
+
+    // shoots at the player once they've been in sight for the reaction time, then at the fire rate
+    boolean fireWhenReady() {
+        wantsToShoot = false;
+        reactionTimer += tickDelta;
+        if (reactionTimer < REACTION_TIME) return false;
+        timeSinceLastShot += tickDelta;
+        if (timeSinceLastShot < shotCooldown) return false;
+        float distance = playerDistance();
+        wantsToShoot = true;
+        shootDirX = playerDx / distance;
+        shootDirY = playerDy / distance;
+        timeSinceLastShot = 0f;
+        return true;
+    }
+
+    // bomber: blows itself up next to the player
+    boolean explodeIfClose() {
+        if (hasExploded || playerDistance() >= 40f) return false;
+        exploding = true;
+        return true;
+    }
+
+    boolean stopAiming() {
         reactionTimer = 0f;
         wantsToShoot = false;
-        //investigate lastKnownPlayerPos if set, even if playerRecentlySeen is false
-        if (lastKnownPlayerPos != null) {
-            pathRecalcCooldown -= delta;
-            if (pathfinder != null && (currentPath == null || pathIndex >= currentPath.size || pathRecalcCooldown <= 0f)) {
-                currentPath = pathfinder.findPath(new Vector2(x, y), lastKnownPlayerPos);
-                pathIndex = 0;
-                pathRecalcCooldown = PATH_RECALC_INTERVAL;
-            }
-            if (currentPath != null && pathIndex < currentPath.size) {
-                Vector2 target = currentPath.get(pathIndex);
-                float toTargetX = target.x - x;
-                float toTargetY = target.y - y;
-                float distToTarget = (float)Math.sqrt(toTargetX * toTargetX + toTargetY * toTargetY);
-                if (distToTarget > ARRIVAL_THRESHOLD) {
-                    float moveSpeed = speed * delta;
-                    float norm = (float) Math.sqrt(toTargetX * toTargetX + toTargetY * toTargetY);
-                    if (norm > 1e-3) {
-                        float moveX = (toTargetX / norm) * moveSpeed;
-                        float moveY = (toTargetY / norm) * moveSpeed;
-                        collisionRectangle.move(x + moveX - (texture.getWidth() / 4f), y + moveY - (texture.getHeight() / 4f));
-                        boolean collides = false;
-                        for (CollisionRectangle rect : mapCollisions) {
-                            if (collisionRectangle.collisionCheck(rect)) {
-                                collides = true;
-                                break;
-                            }
-                        }
-                        if (!collides && !isCollidingWithEnemies(x + moveX, y + moveY, enemies)) {
-                            x += moveX;
-                            y += moveY;
-                            state = EnemyState.MOVING;
-                        } else {
-                            collisionRectangle.move(x - (texture.getWidth() / 4f), y - (texture.getHeight() / 4f));
-                        }
-                    }
-                    // Rotate towards target
-                    float angleToTarget = (float)Math.toDegrees(Math.atan2(toTargetY, toTargetX));
-                    targetRotation = angleToTarget;
-                    smoothRotateTowards(targetRotation, delta);
-                } else {
-                    pathIndex++;
-                    state = EnemyState.CAUTIOUS;
-                }
-            } else {
-                // Arrived at last known position, stop searching
-                lastKnownPlayerPos = null;
-                currentPath = null;
-                pathIndex = 0;
-                state = EnemyState.CAUTIOUS;
-            }
-        } else {
-            state = EnemyState.UNAWARE;
+        return true;
+    }
+
+    // passive: an alerted enemy that lost sight of the player goes back to cautious
+    boolean calmDown() {
+        if (getState() != EnemyState.ALERTED) return false;
+        setState(EnemyState.CAUTIOUS);
+        checkedAggressiveConversion = false; // Reset when losing sight
+        return true;
+    }
+
+    boolean forgetPlayer() {
+        playerRecentlySeen = false;
+        setState(EnemyState.UNAWARE);
+        return true;
+    }
+
+    // walks towards lastKnownPlayerPos, false if there is none
+    boolean chase() {
+        if (lastKnownPlayerPos == null) return false;
+        // the path is looked up and walked in commit(), the flow fields and pathfinder are render thread only
+        pathGoal = lastKnownPlayerPos;
+        return true;
+    }
+
+    boolean relax() {
+        setState(EnemyState.UNAWARE);
+        return true;
+    }
+
+    // --- carrying out the intents, commit() only ---
+
+    // one step along the path to lastKnownPlayerPos, CAUTIOUS once there
+    private void followPath() {
+        Vector2 target = nextChaseWaypoint(tickDelta);
+        if (target == null) {
+            // Arrived at last known position, stop searching
+            lastKnownPlayerPos = null;
+            currentPath = null;
+            pathIndex = 0;
+            setState(EnemyState.CAUTIOUS);
+            return;
+        }
+        // the path is still being searched, carry on as before without touching pathIndex
+        if (target == AWAITING_PATH) return;
+        float toTargetX = target.x - getX();
+        float toTargetY = target.y - getY();
+        float distToTarget = (float) Math.sqrt(toTargetX * toTargetX + toTargetY * toTargetY);
+        if (distToTarget <= ARRIVAL_THRESHOLD) {
+            pathIndex++;
+            setState(EnemyState.CAUTIOUS);
+            return;
+        }
+        float moveSpeed = moveSpeed() * tickDelta;
+        if (tryMove(toTargetX / distToTarget * moveSpeed, toTargetY / distToTarget * moveSpeed)) {
+            setState(EnemyState.MOVING);
+        }
+        // Rotate towards target
+        targetRotation = (float) Math.toDegrees(Math.atan2(toTargetY, toTargetX));
+        smoothRotateTowards(targetRotation, tickDelta);
+    }
+
+    private void explode() {
+        hasExploded = true;
+        dead = true;
+        if (deathSound != null) deathSound.play();
+        // Use grenade explosion logic
+        if (levelScreenListener != null) {
+            levelScreenListener.createGrenadeExplosion(getX(), getY());
         }
     }
-    
+
+    private void clearIntents() {
+        stepX = 0f;
+        stepY = 0f;
+        charging = false;
+        turning = false;
+        pathGoal = null;
+        replanWanted = false;
+        exploding = false;
+    }
+
+    // --- helpers for the actions ---
+
+    // asks commit() to move by (dx, dy), on top of any other step asked for this tick
+    private void step(float dx, float dy) {
+        stepX += dx;
+        stepY += dy;
+    }
+
+    // asks commit() to turn towards angle at the current rotation speed
+    private void turnTowards(float angle) {
+        turning = true;
+        turnTarget = angle;
+    }
+
+    // distance to the player, worked out once per tick on first use (playerDx/Dy along with it)
+    private float playerDistance() {
+        if (!playerVectorFresh) {
+            playerDx = tickPlayer.getX() - getX();
+            playerDy = tickPlayer.getY() - getY();
+            playerDistance = (float) Math.sqrt(playerDx * playerDx + playerDy * playerDy);
+            playerVectorFresh = true;
+        }
+        return playerDistance;
+    }
+
+    private float moveSpeed() {
+        return type == EnemyType.BOMBER ? speed * BOMBER_SPEED_FACTOR : speed;
+    }
+
+    // moves by (moveX, moveY) unless a wall or another enemy is in the way
+    private boolean tryMove(float moveX, float moveY) {
+        int i = index();
+        float toX = entities.transforms.x[i] + moveX;
+        float toY = entities.transforms.y[i] + moveY;
+        moveHitbox(collisionRectangle, toX, toY);
+        if (!tickCollisions.overlaps(collisionRectangle) && !isCollidingWithEnemies(toX, toY, tickEnemies)) {
+            entities.transforms.x[i] = toX;
+            entities.transforms.y[i] = toY;
+            return true;
+        }
+        moveHitbox(collisionRectangle, entities.transforms.x[i], entities.transforms.y[i]);
+        return false;
+    }
+
+    // puts the hitbox, sized by the collider component, around (centerX, centerY)
+    private void moveHitbox(CollisionRectangle hitbox, float centerX, float centerY) {
+        int i = index();
+        hitbox.move(centerX - entities.colliders.halfWidth[i], centerY - entities.colliders.halfHeight[i]);
+    }
+
+    // Next point to walk to on the way to lastKnownPlayerPos, null once there (or if it can't be reached),
+    // AWAITING_PATH while the workers haven't answered yet
+    private Vector2 nextChaseWaypoint(float delta) {
+        if (flowFields != null) {
+            return flowFields.nextWaypoint(getX(), getY(), lastKnownPlayerPos, ARRIVAL_THRESHOLD, chaseWaypoint) ? chaseWaypoint : null;
+        }
+        if (pathFailed) {
+            pathFailed = false;
+            return null;
+        }
+        pathRecalcCooldown -= delta;
+        boolean waiting = pendingPathGoal != null && pendingPathGoal.equals(lastKnownPlayerPos);
+        if (pathfinder != null && !waiting && (currentPath == null || pathIndex >= currentPath.size || pathRecalcCooldown <= 0f)) {
+            replan();
+        }
+        if (currentPath != null && pathIndex < currentPath.size) {
+            return currentPath.get(pathIndex);
+        }
+        if (pendingPathGoal != null) {
+            // nothing to follow until the worker answers, hold position
+            return AWAITING_PATH;
+        }
+        return null;
+    }
+
+    // new path to lastKnownPlayerPos, searched right away or handed to the workers
+    private void replan() {
+        pathRecalcCooldown = PATH_RECALC_INTERVAL;
+        if (pathRequests == null) {
+            currentPath = pathfinder.findPath(new Vector2(getX(), getY()), lastKnownPlayerPos);
+            pathIndex = 0;
+            return;
+        }
+        // resubmitting replaces (and cancels) whatever this enemy still had in flight
+        final Vector2 goal = new Vector2(lastKnownPlayerPos);
+        pendingPathGoal = goal;
+        pathRequests.submit(this, new Vector2(getX(), getY()), goal, path -> {
+            pendingPathGoal = null;
+            // the target moved on while this was searching, the next update asks again
+            if (dead || lastKnownPlayerPos == null || !goal.equals(lastKnownPlayerPos)) return;
+            currentPath = path;
+            pathIndex = 0;
+            pathFailed = path == null;
+        });
+    }
+
     // Helper method to smoothly rotate towards a target angle
     private void smoothRotateTowards(float targetAngle, float delta) {
         // Calculate the direct angular difference
-        float angleDiff = targetAngle - rotation;
+        float angleDiff = targetAngle - getRotation();
         
         // Normalize to [-180, 180] range to find shortest rotation path
         while (angleDiff > 180) angleDiff -= 360;
@@ -707,56 +651,49 @@ public class Enemy extends NPC {
         // Apply rotation, limited by max rotation speed
         if (Math.abs(angleDiff) <= maxRotation) {
             // Close enough, snap to target
-            rotation = targetAngle;
+            setRotation(targetAngle);
             currentRotationSpeed = rotationSpeed; // Reset to normal after turn
         } else {
             // Move towards target at maximum speed (in the correct direction)
-            rotation += Math.signum(angleDiff) * maxRotation;
+            setRotation(getRotation() + Math.signum(angleDiff) * maxRotation);
         }
     }
 
     // Public method to alert and turn towards a given position (e.g., player)
     public void alertAndTurnTo(float targetX, float targetY) {
         if (dead) return;
-        float dx = targetX - this.x;
-        float dy = targetY - this.y;
+        float dx = targetX - getX();
+        float dy = targetY - getY();
         float angleToTarget = (float) Math.toDegrees(Math.atan2(dy, dx));
         this.targetRotation = angleToTarget;
-        this.state = EnemyState.ALERTED;
+        setState(EnemyState.ALERTED);
         this.currentRotationSpeed = fastRotationSpeed;
         this.alertedTimer = MIN_ALERTED_TIME; // Start/reset the alert timer
     }
 
     @Override
-    public void render(SpriteBatch batch) {
+    public void render(SpriteBatch batch, float alpha) {
         if (!dead) {
-            super.render(batch);
+            super.render(batch, alpha);
         } else if (!disposeAfterDeath) {
             // Determine current frame based on deathElapsedTime
             int frame = (int) (deathElapsedTime / deathFrameDuration);
             if (frame >= deathFrames.length) frame = deathFrames.length - 1; // Clamp to last frame
 
-            Texture currentFrame = deathFrames[frame];
-            float drawWidth = currentFrame.getWidth() * 0.8f;   
-            float drawHeight = currentFrame.getHeight() * 0.8f;
+            TextureRegion currentFrame = deathFrames[frame];
+            float drawWidth = currentFrame.getRegionWidth() * 0.8f;   
+            float drawHeight = currentFrame.getRegionHeight() * 0.8f;
 
             batch.draw(
                 currentFrame,
-                x - drawWidth / 2f,
-                y - drawHeight / 2f,
+                getX() - drawWidth / 2f,
+                getY() - drawHeight / 2f,
                 drawWidth,
                 drawHeight
             );
         }
     }
     
- // draw drop above enemy body
-    public void renderDrop(SpriteBatch batch) {
-        if (dead && dropTexture != null && !dropCollected) {
-            float iconSize = 16f;
-            batch.draw(dropTexture, x - iconSize / 2, y - iconSize / 2, iconSize, iconSize);
-        }
-    }
 
 
     public void takeDamage(int amount) {
@@ -783,24 +720,19 @@ public class Enemy extends NPC {
                     switch (roll) {
                         case 0:
                             dropType = DropType.PISTOL_AMMO;
-                            dropTexture = pistolDropIcon;
                             break;
                         case 1:
                             dropType = DropType.SHOTGUN_AMMO;
-                            dropTexture = shotgunDropIcon;
                             break;
                         case 2:
                             dropType = DropType.CARBINE_AMMO;
-                            dropTexture = carbineDropIcon;
                             break;
                         case 3:
                             dropType = DropType.MEDKIT;
-                            dropTexture = medkitDropIcon;
                             break;
                     }
                 } else {
                     dropType = null;
-                    dropTexture = null;
                 }
 
                 // Play death sound once
@@ -810,7 +742,7 @@ public class Enemy extends NPC {
                 if (type == EnemyType.BOMBER && !hasExploded && Math.random() < 0.25) {
                     hasExploded = true;
                     if (levelScreenListener != null) {
-                        levelScreenListener.createGrenadeExplosion(x, y);
+                        levelScreenListener.createGrenadeExplosion(getX(), getY());
                     }
                 }
             }
@@ -857,24 +789,44 @@ public class Enemy extends NPC {
     }
 
     public float getVisionDistance() {
-        return visionDistance;
+        return PerceptionSystem.VISION_DISTANCE;
     }
 
     public float getVisionAngle() {
-        return visionAngle;
+        return PerceptionSystem.VISION_ANGLE;
     }
 
     // Get rotation of the enemy
+    @Override
     public float getRotation() {
-        return rotation;
+        int i = index();
+        return i >= 0 ? entities.transforms.rotation[i] : rotation;
+    }
+
+    private void setRotation(float degrees) {
+        entities.transforms.rotation[index()] = degrees;
     }
 
     public void setPathfinder(AStarPathfinder pathfinder) {
         this.pathfinder = pathfinder;
     }
 
+    public void setFlowFields(FlowFieldCache flowFields) {
+        this.flowFields = flowFields;
+    }
+
+    public void setPathRequests(PathRequestService pathRequests) {
+        this.pathRequests = pathRequests;
+    }
+
+    // UNAWARE once retired
     public EnemyState getState() {
-        return state;
+        int i = index();
+        return i >= 0 ? entities.ai.state[i] : EnemyState.UNAWARE;
+    }
+
+    private void setState(EnemyState state) {
+        entities.ai.state[index()] = state;
     }
 
     public boolean isDisposed() {
@@ -900,48 +852,24 @@ public class Enemy extends NPC {
         }
     }
 
-    @Override
-    public void dispose() {
-        if (deathSound != null) deathSound.dispose();
-        if (shootSound != null) shootSound.dispose();
-        super.dispose();
-    }
-    
  // accessors for drops
     public DropType getDropType() {
         return dropType;
     }
 
-    public boolean isDropCollected() {
-        return dropCollected;
-    }
-
-    public void markDropCollected() {
-        dropCollected = true;
-    }
-
     public float getDropX() {
-        return x;
+        return getX();
     }
 
     public float getDropY() {
-        return y;
+        return getY();
     }
 
     //helper method to check collision with other enemies
-    private boolean isCollidingWithEnemies(float proposedX, float proposedY, Array<Enemy> enemies) {
-        for (Enemy e : enemies) {
-            if (e == this || e.isDead()) continue;
-            CollisionRectangle otherRect = e.getCollisionRectangle();
-            // Create a temp rectangle for the proposed position
-            float tempX = proposedX - (texture.getWidth() / 4f);
-            float tempY = proposedY - (texture.getHeight() / 4f);
-            CollisionRectangle tempRect = new CollisionRectangle(tempX, tempY, collisionRectangle.getWidth(), collisionRectangle.getHeight());
-            if (tempRect.collisionCheck(otherRect)) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isCollidingWithEnemies(float proposedX, float proposedY, EnemyGrid enemies) {
+        // hitbox at the proposed position
+        moveHitbox(proposedRectangle, proposedX, proposedY);
+        return enemies.overlaps(proposedRectangle, this);
     }
 
 }
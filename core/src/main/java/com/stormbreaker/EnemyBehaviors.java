@@ -0,0 +1,72 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.stormbreaker.Enemy.EnemyType;
+import com.stormbreaker.ai.BehaviorTree;
+import com.stormbreaker.ai.BehaviorTreeLoader;
+
+/**
+ * The behaviour tree of every enemy type, loaded from ai/&lt;type&gt;.json by {@link #load} and
+ * kept for the rest of the game. The files live in core/assets with the other gameplay assets,
+ * so the desktop and headless runs both find them. Enemies run their trees on the think phase's
+ * worker threads, which only read the loaded trees.
+ *
+ * This is where the names used in the files are tied to Enemy's sensors and actions.
+ * Sensors read what {@link Enemy#perceive} found this tick and are memoised per enemy;
+ * actions act on the enemy and say whether they did anything.
+ */
+public final class EnemyBehaviors {
+    private static final String DIRECTORY = "ai/";
+
+    private static final BehaviorTreeLoader<Enemy> LOADER = new BehaviorTreeLoader<Enemy>()
+        // sensors
+        .sensor("seesPlayer", Enemy::seesPlayer)
+        .sensor("hearsSound", Enemy::hearsSound)
+        .sensor("playerOutOfRange", Enemy::isPlayerOutOfRange)
+        // actions
+        .action("holdAlert", Enemy::holdAlert)
+        .action("noticeSound", Enemy::noticeSound)
+        .action("investigateSound", Enemy::investigateSound)
+        .action("lookAround", Enemy::lookAround)
+        .action("unstick", Enemy::unstick)
+        .action("markPlayer", Enemy::markPlayer)
+        .action("alert", Enemy::alert)
+        .action("rollForAggression", Enemy::rollForAggression)
+        .action("hurry", Enemy::hurry)
+        .action("charge", Enemy::charge)
+        .action("turnToPlayer", Enemy::turnToPlayer)
+        .action("fireWhenReady", Enemy::fireWhenReady)
+        .action("explodeIfClose", Enemy::explodeIfClose)
+        .action("stopAiming", Enemy::stopAiming)
+        .action("calmDown", Enemy::calmDown)
+        .action("forgetPlayer", Enemy::forgetPlayer)
+        .action("chase", Enemy::chase)
+        .action("relax", Enemy::relax);
+
+    // by EnemyType ordinal, filled in by load
+    private static final BehaviorTree<Enemy>[] TREES = newTreeArray();
+
+    private EnemyBehaviors() {
+    }
+
+    // loads the trees of every type that isn't loaded yet; render thread, before enemies think
+    public static void load() {
+        for (EnemyType type : EnemyType.values()) {
+            if (TREES[type.ordinal()] == null) {
+                TREES[type.ordinal()] = LOADER.load(Gdx.files.internal(DIRECTORY + type.name().toLowerCase() + ".json"));
+            }
+        }
+    }
+
+    public static BehaviorTree<Enemy> forType(EnemyType type) {
+        BehaviorTree<Enemy> tree = TREES[type.ordinal()];
+        if (tree == null) throw new GdxRuntimeException("behaviour trees not loaded, call EnemyBehaviors.load() first");
+        return tree;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BehaviorTree<Enemy>[] newTreeArray() {
+        return new BehaviorTree[EnemyType.values().length];
+    }
+}
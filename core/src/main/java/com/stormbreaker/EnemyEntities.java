@@ -0,0 +1,23 @@
+package com.stormbreaker;
+
+import com.stormbreaker.ecs.Colliders;
+import com.stormbreaker.ecs.EntityStore;
+import com.stormbreaker.ecs.Transforms;
+
+/**
+ * The live enemies of a level as entities: every {@link Enemy} owns one entity, whose
+ * components hold its position, hitbox, what it perceived and its AI state. Enemies are
+ * created in spawn order and keep it, so index i here is the i-th live enemy of
+ * GameSimulation's list. A dead enemy leaves the store once GameSimulation retires it.
+ */
+public class EnemyEntities {
+    public final EntityStore store = new EntityStore();
+    public final Transforms transforms = store.register(new Transforms());
+    public final Colliders colliders = store.register(new Colliders());
+    public final Perceptions perceptions = store.register(new Perceptions());
+    public final AiStates ai = store.register(new AiStates());
+
+    public int size() {
+        return store.size();
+    }
+}
@@ -0,0 +1,189 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.stormbreaker.tools.CollisionRectangle;
+
+/**
+ * Uniform grid of the live enemies, kept up to date as they move.
+ *
+ * Each enemy sits in the bucket containing its position and is only moved between buckets
+ * when it crosses into another one. Queries look at the buckets around the query area,
+ * widened by how far the biggest enemy reaches from its centre, so a query touches the
+ * enemies nearby instead of the whole level.
+ *
+ * Positions outside the map are clamped to the edge buckets, which keeps queries correct
+ * for enemies that stray off the map. Dead enemies are skipped by every query and dropped
+ * from their bucket on their next {@link #update}.
+ *
+ * Not thread safe; GameSimulation updates and queries it on the render thread.
+ */
+public class EnemyGrid {
+    public static final float DEFAULT_CELL_SIZE = 64f;
+
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final Array<Enemy>[] cells;
+    private final ObjectIntMap<Enemy> cellOf = new ObjectIntMap<>();
+    private float reach; // largest enemy radius or hitbox half-size seen so far
+    private float lastHitTime = -1f; // segment parameter of the last firstAlongSegment hit
+
+    public EnemyGrid(float worldWidth, float worldHeight) {
+        this(worldWidth, worldHeight, DEFAULT_CELL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public EnemyGrid(float worldWidth, float worldHeight, float cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.cells = new Array[columns * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Array<>(false, 4);
+        }
+    }
+
+    /**
+     * Adds the enemy, moves it to the bucket of its current position, or removes it once dead.
+     * Call after anything that moves an enemy.
+     */
+    public void update(Enemy enemy) {
+        int previous = cellOf.get(enemy, -1);
+        if (enemy.isDead()) {
+            if (previous >= 0) remove(enemy);
+            return;
+        }
+        int cell = row(enemy.getY()) * columns + column(enemy.getX());
+        if (cell == previous) return;
+
+        if (previous >= 0) {
+            cells[previous].removeValue(enemy, true);
+        } else {
+            CollisionRectangle hitbox = enemy.getCollisionRectangle();
+            reach = Math.max(reach, Math.max(enemy.getRadius(), Math.max(hitbox.getWidth(), hitbox.getHeight()) / 2f));
+        }
+        cells[cell].add(enemy);
+        cellOf.put(enemy, cell);
+    }
+
+    public void remove(Enemy enemy) {
+        int cell = cellOf.remove(enemy, -1);
+        if (cell >= 0) cells[cell].removeValue(enemy, true);
+    }
+
+    public void clear() {
+        for (Array<Enemy> cell : cells) {
+            cell.clear();
+        }
+        cellOf.clear();
+        reach = 0f;
+    }
+
+    /**
+     * True if box overlaps the hitbox of any live enemy other than ignore.
+     */
+    public boolean overlaps(CollisionRectangle box, Enemy ignore) {
+        int minX = column(box.getX() - reach), maxX = column(box.getX() + box.getWidth() + reach);
+        int minY = row(box.getY() - reach), maxY = row(box.getY() + box.getHeight() + reach);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                Array<Enemy> cell = cells[cy * columns + cx];
+                for (int i = 0; i < cell.size; i++) {
+                    Enemy e = cell.get(i);
+                    if (e == ignore || e.isDead()) continue;
+                    if (box.collisionCheck(e.getCollisionRectangle())) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Live enemy whose body circle the segment enters first, or null if none. Enemies that
+     * are == ignore (e.g. a bullet's owner) are skipped. Where along the segment it was hit
+     * is available from {@link #getLastHitTime()}.
+     */
+    public Enemy firstAlongSegment(float startX, float startY, float endX, float endY, Object ignore) {
+        int minX = column(Math.min(startX, endX) - reach), maxX = column(Math.max(startX, endX) + reach);
+        int minY = row(Math.min(startY, endY) - reach), maxY = row(Math.max(startY, endY) + reach);
+
+        Enemy closest = null;
+        float closestTime = Float.MAX_VALUE;
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                Array<Enemy> cell = cells[cy * columns + cx];
+                for (int i = 0; i < cell.size; i++) {
+                    Enemy e = cell.get(i);
+                    if (e == ignore || e.isDead()) continue;
+                    float time = segmentCircleEntry(startX, startY, endX, endY, e.getX(), e.getY(), e.getRadius());
+                    if (time >= 0f && time < closestTime) {
+                        closestTime = time;
+                        closest = e;
+                    }
+                }
+            }
+        }
+        lastHitTime = closest != null ? closestTime : -1f;
+        return closest;
+    }
+
+    // segment parameter in [0, 1] of the last hit returned by firstAlongSegment, -1 after a miss
+    public float getLastHitTime() {
+        return lastHitTime;
+    }
+
+    /**
+     * Segment parameter in [0, 1] at which the segment enters the circle, 0 if it starts inside,
+     * or -1 if it misses it.
+     */
+    static float segmentCircleEntry(float startX, float startY, float endX, float endY, float centreX, float centreY, float radius) {
+        float dx = endX - startX;
+        float dy = endY - startY;
+        float fx = startX - centreX;
+        float fy = startY - centreY;
+        float c = fx * fx + fy * fy - radius * radius;
+        if (c <= 0f) return 0f;
+        float a = dx * dx + dy * dy;
+        float b = fx * dx + fy * dy;
+        if (a == 0f || b >= 0f) return -1f; // moving away from the centre, or not moving
+        float discriminant = b * b - a * c;
+        if (discriminant < 0f) return -1f;
+        float time = (-b - (float) Math.sqrt(discriminant)) / a;
+        return time <= 1f ? time : -1f;
+    }
+
+    /**
+     * Adds every live enemy whose position is within radius of (x, y) to out and returns it.
+     */
+    public Array<Enemy> within(float x, float y, float radius, Array<Enemy> out) {
+        int minX = column(x - radius), maxX = column(x + radius);
+        int minY = row(y - radius), maxY = row(y + radius);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                Array<Enemy> cell = cells[cy * columns + cx];
+                for (int i = 0; i < cell.size; i++) {
+                    Enemy e = cell.get(i);
+                    if (e.isDead()) continue;
+                    if (Vector2.dst2(x, y, e.getX(), e.getY()) <= radius * radius) out.add(e);
+                }
+            }
+        }
+        return out;
+    }
+
+    public int size() {
+        return cellOf.size;
+    }
+
+    private int column(float worldX) {
+        int cx = (int) Math.floor(worldX / cellSize);
+        return Math.max(0, Math.min(columns - 1, cx));
+    }
+
+    private int row(float worldY) {
+        int cy = (int) Math.floor(worldY / cellSize);
+        return Math.max(0, Math.min(rows - 1, cy));
+    }
+}
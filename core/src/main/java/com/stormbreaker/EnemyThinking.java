@@ -0,0 +1,137 @@
+package com.stormbreaker;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.stormbreaker.tools.CollisionGrid;
+
+/**
+ * Runs the think phase of the enemy update across all cores: the {@link PerceptionSystem} over
+ * every enemy entity, then {@link Enemy#decide} for the enemies the AiScheduler gives a turn.
+ *
+ * Perceiving is where an enemy spends most of its tick (line-of-sight rays and sound lookups),
+ * deciding runs its behaviour tree. Both only read the world and write the enemy's own fields
+ * and components, so the enemies are split into batches on a ForkJoinPool. The commit phase,
+ * {@link Enemy#commit}, stays on the render thread in list order: it moves enemies against each
+ * other through the EnemyGrid, requests paths, plays sounds and spawns bullets.
+ *
+ * Since nothing an enemy reads is written by another one, the result doesn't depend on how the
+ * batches were scheduled and a run with the same input still plays out the same way. Few
+ * enemies are handled on the calling thread, splitting them up would cost more than it saves.
+ * So is perceiving without a VisibilityGrid: the rays fall back to the CollisionGrid, whose
+ * scratch arrays only the render thread may use.
+ */
+public class EnemyThinking implements Disposable {
+    // enemies per batch, and below twice this many everything runs on the calling thread
+    private static final int BATCH_SIZE = 16;
+
+    private final ForkJoinPool pool; // null with a single core
+
+    public EnemyThinking() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public EnemyThinking(int parallelism) {
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism, EnemyThinking::newThread, null, false) : null;
+    }
+
+    /**
+     * Perceives every enemy entity, returning once all of them are done. The entities, the
+     * sound events and the map must not change until then.
+     */
+    public void perceive(PerceptionSystem perception, Player player, CollisionGrid mapCollisions, SoundEventBus soundEvents) {
+        int size = perception.size();
+        if (pool == null || size < BATCH_SIZE * 2 || !perception.isThreadSafe()) {
+            perception.perceive(0, size, player.getX(), player.getY(), mapCollisions, soundEvents);
+            return;
+        }
+        pool.invoke(new PerceiveBatch(perception, 0, size, player.getX(), player.getY(), mapCollisions, soundEvents));
+    }
+
+    /**
+     * Lets every enemy in the list decide over the slice the AiScheduler gave it, returning
+     * once all of them are done. Enemies and player must not change until then.
+     */
+    public void decide(Array<Enemy> enemies, Player player) {
+        if (pool == null || enemies.size < BATCH_SIZE * 2) {
+            for (int i = 0; i < enemies.size; i++) {
+                enemies.get(i).decide(player);
+            }
+            return;
+        }
+        pool.invoke(new DecideBatch(enemies, 0, enemies.size, player));
+    }
+
+    @Override
+    public void dispose() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    private static ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("enemy-think-" + thread.getPoolIndex());
+        thread.setDaemon(true); // never keep the game process alive
+        return thread;
+    }
+
+    // entity indices from .. to - 1, halved until a batch is small enough to perceive in one go
+    private static class PerceiveBatch extends RecursiveAction {
+        private final PerceptionSystem perception;
+        private final int from, to;
+        private final float playerX, playerY;
+        private final CollisionGrid mapCollisions;
+        private final SoundEventBus soundEvents;
+
+        PerceiveBatch(PerceptionSystem perception, int from, int to, float playerX, float playerY,
+                      CollisionGrid mapCollisions, SoundEventBus soundEvents) {
+            this.perception = perception;
+            this.from = from;
+            this.to = to;
+            this.playerX = playerX;
+            this.playerY = playerY;
+            this.mapCollisions = mapCollisions;
+            this.soundEvents = soundEvents;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                perception.perceive(from, to, playerX, playerY, mapCollisions, soundEvents);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PerceiveBatch(perception, from, middle, playerX, playerY, mapCollisions, soundEvents),
+                      new PerceiveBatch(perception, middle, to, playerX, playerY, mapCollisions, soundEvents));
+        }
+    }
+
+    // enemies from .. to - 1 of the list, halved until a batch is small enough to decide in one go
+    private static class DecideBatch extends RecursiveAction {
+        private final Array<Enemy> enemies;
+        private final int from, to;
+        private final Player player;
+
+        DecideBatch(Array<Enemy> enemies, int from, int to, Player player) {
+            this.enemies = enemies;
+            this.from = from;
+            this.to = to;
+            this.player = player;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    enemies.get(i).decide(player);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecideBatch(enemies, from, middle, player),
+                      new DecideBatch(enemies, middle, to, player));
+        }
+    }
+}
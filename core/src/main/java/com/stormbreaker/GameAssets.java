@@ -0,0 +1,82 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+/**
+ * The one AssetManager behind every level. A level's map, victory image, music, sounds and the
+ * sprite atlas are all loaded through it, in the background by {@link LoadingScreen} or in one
+ * go by a headless run, and gameplay code only ever gets them from here.
+ *
+ * The manager counts references: {@link #queueLevel} adds one to every asset the level needs
+ * and {@link #unloadLevel} takes it away again. A screen that is replaced queues the next level
+ * before the old one is unloaded, so whatever both share (the music, sounds and atlas) stays
+ * loaded and only assets nobody references any more are disposed.
+ */
+public final class GameAssets {
+    public static final String MUSIC = "backgroundmusic.mp3";
+
+    public static final String PISTOL_SHOT = "pistol_shot.wav";
+    public static final String CARBINE_SHOT = "carbine_shot.ogg";
+    public static final String GRENADE_EXPLOSION = "grenade.wav";
+    public static final String ENEMY_DEATH = "deathaudio.ogg";
+    public static final String FOOTSTEPS = "footsteps-on-tile-31653.ogg";
+    public static final String WEAPON_SWITCH = "weapon_switch.wav";
+    public static final String BANDAGE = "bandageSound.wav";
+    public static final String MEDKIT = "medkitSound.wav";
+
+    // every sound a level can play
+    private static final String[] SOUNDS = {
+        PISTOL_SHOT, CARBINE_SHOT, GRENADE_EXPLOSION, ENEMY_DEATH,
+        FOOTSTEPS, WEAPON_SWITCH, BANDAGE, MEDKIT
+    };
+
+    private static AssetManager manager;
+
+    private GameAssets() {
+    }
+
+    public static AssetManager manager() {
+        if (manager == null) manager = new AssetManager(); // tmx maps load through its TmxMapLoader
+        return manager;
+    }
+
+    // adds one reference to each asset of the level; they load as the manager is updated
+    public static void queueLevel(LevelConfig config) {
+        AssetManager assets = manager();
+        assets.load(config.mapPath, TiledMap.class);
+        if (config.victoryImagePath != null) assets.load(config.victoryImagePath, Texture.class);
+        assets.load(MUSIC, Music.class);
+        for (String sound : SOUNDS) {
+            assets.load(sound, Sound.class);
+        }
+        assets.load(Sprites.ATLAS_PATH, TextureAtlas.class);
+    }
+
+    // drops the references queueLevel added
+    public static void unloadLevel(LevelConfig config) {
+        AssetManager assets = manager();
+        assets.unload(config.mapPath);
+        if (config.victoryImagePath != null) assets.unload(config.victoryImagePath);
+        assets.unload(MUSIC);
+        for (String sound : SOUNDS) {
+            assets.unload(sound);
+        }
+        assets.unload(Sprites.ATLAS_PATH);
+    }
+
+    public static Sound sound(String path) {
+        return manager().get(path, Sound.class);
+    }
+
+    public static void dispose() {
+        if (manager != null) {
+            manager.dispose();
+            manager = null;
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package com.stormbreaker;
+
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.stormbreaker.tools.AStarPathfinder;
+import com.stormbreaker.tools.CollisionRectangle;
+import com.stormbreaker.tools.FlowFieldCache;
+import com.stormbreaker.tools.MapManager;
+import com.stormbreaker.tools.PathRequestService;
+import com.stormbreaker.tools.PotentiallyVisibleSet;
+import com.stormbreaker.weapons.Carbine;
+import com.stormbreaker.weapons.Shotgun;
+import com.stormbreaker.weapons.Weapon;
+
+/**
+ * Everything that happens in a level, without any drawing.
+ *
+ * Owns the player, enemies, bullets, grenades, sound events and the Box2D world, and advances
+ * them with {@link #step(float, InputFrame)}. Input only comes in through the {@link InputFrame},
+ * so MainGameplayScreen drives it from the keyboard and mouse while headless runs drive it from
+ * a script, with no GL context or window needed for the logic itself.
+ *
+ * The game runs it at a fixed {@link #TICK} through {@link #advance(float, InputFrame)}, so a
+ * slow frame means more ticks rather than one long one: bullets, enemies and Box2D always see
+ * the same step, and a run with the same input plays out the same way. Positions from before
+ * the last tick are kept so the screen can draw in between ticks.
+ *
+ * {@link #reset()} restarts the level in place from its LevelConfig, keeping the world, the
+ * pathfinding and visibility data built from the map.
+ *
+ * The map is borrowed, whoever created the MapManager disposes it.
+ */
+public class GameSimulation implements Disposable {
+
+    public static final float TICK = 1f / 120f;
+    // past this many ticks in one frame the game slows down instead of falling further behind
+    public static final int MAX_TICKS_PER_FRAME = 8;
+
+    // grids at least this many cells (about 100x100) count as large for enemy navigation
+    private static final int LARGE_MAP_CELLS = 10000;
+
+    private static final float PLAYER_SPEED = 100f;
+    private static final float MAX_GRENADE_DISTANCE = 250f;
+
+    private final LevelConfig config;
+    private final MapManager mapManager;
+    private Player player; // replaced on reset, so don't hold on to it across one
+    private final BulletSystem bullets = new BulletSystem();
+    private final GrenadeSystem grenades;
+    // enemies move between these as they die, so the per-tick loops only ever see live ones
+    private final Array<Enemy> enemies = new Array<>(); // live enemies
+    // their positions, hitboxes, perception and AI state, dense and in the same order
+    private final EnemyEntities enemyEntities = new EnemyEntities();
+    private final Array<Enemy> dying = new Array<>(); // dead, still playing the death animation
+    private final Array<Enemy> corpses = new Array<>(); // every dead enemy, only drawn
+    private final DropSystem drops = new DropSystem(); // what they left behind, until picked up
+    private final EnemyGrid enemyGrid; // live enemies bucketed by position, for collision and bullet checks
+    private final Array<Enemy> nearbyEnemies = new Array<>();
+    private final SoundEventBus soundEvents; // what enemies can hear, pooled and bucketed by reach
+    private final AStarPathfinder pathfinder;
+    private final FlowFieldCache flowFields;
+    private final PathRequestService pathRequests;
+    private final PotentiallyVisibleSet visibleSet;
+    private final PerceptionSystem perception;
+    private final EnemyThinking thinking = new EnemyThinking(); // enemy think phase, across cores
+    private final Array<Enemy> acting = new Array<>(); // enemies with a turn this tick, in commit order
+    private final AiScheduler aiScheduler = new AiScheduler(enemyEntities); // which enemies update this tick
+    private final World world;
+
+    private boolean wasGrenadeHeld = false;
+    private float accumulator = 0f; // frame time not yet simulated, always under one tick after advance
+
+    // reticle spread, grows while firing and shrinks back when not
+    private float currentSpreadMultiplier = 1.0f; // Current spread multiplier (1.0 = default, increases when firing)
+    private float maxSpreadMultiplier = 6.0f;     // Maximum spread multiplier when firing continuously
+
+    private final Sound grenadeExplosionSound;
+    private final Sound pistolSound;
+
+    public GameSimulation(LevelConfig config, MapManager mapManager) {
+        this.config = config;
+        this.mapManager = mapManager;
+
+        world = new World(new Vector2(0, 0), true);
+        spawnCharacters();
+
+        // --- Ensure all enemies have a pathfinder for A* navigation ---
+        float cellSize = 32f; // You can adjust this for pathfinding granularity
+        // Add 1 pixel to the enemy buffer to ensure a 1-pixel standoff from obstacles
+        float enemyBuffer = enemies.size > 0 ? enemies.get(0).getRadius() + 0.5f : 17f; // Use enemy radius + 1 as buffer
+        pathfinder = mapManager.createPathfinder(cellSize, enemyBuffer);
+        // JPS gives the same path costs as plain A*, just with far fewer expansions;
+        // big maps switch to the cluster graph so replans stay cheap whatever the map size
+        boolean largeMap = pathfinder.getGridWidth() * pathfinder.getGridHeight() >= LARGE_MAP_CELLS;
+        pathfinder.setSearchMode(largeMap ? AStarPathfinder.SearchMode.HIERARCHICAL : AStarPathfinder.SearchMode.JUMP_POINT);
+        // On small maps chasing enemies heading for the same cell share one flow field, which is
+        // cheap to build. On big maps a field costs milliseconds, so each enemy plans its own
+        // path on the background workers instead.
+        flowFields = largeMap ? null : new FlowFieldCache(pathfinder);
+        pathRequests = largeMap ? new PathRequestService(pathfinder) : null;
+        // cell-to-cell visibility lets most enemy vision checks skip the ray; it fills in on a
+        // background thread and treats everything as visible until then
+        visibleSet = new PotentiallyVisibleSet(mapManager.getCollisionRectangles(), mapManager.getMapWidth(), mapManager.getMapHeight(), cellSize);
+        visibleSet.buildInBackground();
+        perception = new PerceptionSystem(enemyEntities, mapManager.getVisibilityGrid(), visibleSet);
+
+        enemyGrid = new EnemyGrid(mapManager.getMapWidth(), mapManager.getMapHeight());
+        soundEvents = new SoundEventBus(mapManager.getMapWidth(), mapManager.getMapHeight(),
+            config.occludedSound ? mapManager.getVisibilityGrid() : null);
+        EnemyBehaviors.load(); // before any enemy thinks, the worker threads only read the trees
+        prepareEnemies();
+
+        // Create static Box2D bodies for map collision rectangles so grenades can bounce off them
+        for (CollisionRectangle rect : mapManager.getCollisionRectangles()) {
+            BodyDef bodyDef = new BodyDef();
+            bodyDef.type = BodyDef.BodyType.StaticBody;
+            bodyDef.position.set((rect.getX() + rect.getWidth() / 2f) / GrenadeSystem.PPM, (rect.getY() + rect.getHeight() / 2f) / GrenadeSystem.PPM);
+
+            Body body = world.createBody(bodyDef);
+
+            PolygonShape shape = new PolygonShape();
+            shape.setAsBox(rect.getWidth() / 2f / GrenadeSystem.PPM, rect.getHeight() / 2f / GrenadeSystem.PPM);
+
+            FixtureDef fixtureDef = new FixtureDef();
+            fixtureDef.shape = shape;
+            fixtureDef.density = 1f;
+            fixtureDef.restitution = 0.6f; // adjust for bounce feel
+
+            body.createFixture(fixtureDef);
+            shape.dispose();
+        }
+        grenadeExplosionSound = GameAssets.sound(GameAssets.GRENADE_EXPLOSION);
+        pistolSound = GameAssets.sound(GameAssets.PISTOL_SHOT);
+        grenades = new GrenadeSystem(soundEvents, pistolSound); // grenade bounces use the pistol sound
+
+        // Add Box2D contact listener for grenade bounces
+        world.setContactListener(new ContactListener() {
+            @Override
+            public void beginContact(Contact contact) {
+                Fixture fixA = contact.getFixtureA();
+                Fixture fixB = contact.getFixtureB();
+                // Check if either fixture is a grenade
+                if (fixA.getBody().getUserData() == grenades) {
+                    grenades.onBounce(fixA.getBody());
+                } else if (fixB.getBody().getUserData() == grenades) {
+                    grenades.onBounce(fixB.getBody());
+                }
+            }
+            @Override public void endContact(Contact contact) {}
+            @Override public void preSolve(Contact contact, Manifold oldManifold) {}
+            @Override public void postSolve(Contact contact, ContactImpulse impulse) {}
+        });
+    }
+
+    // the player and enemies as the level config places them
+    private void spawnCharacters() {
+        player = new Player(config.playerSpawn.x, config.playerSpawn.y, PLAYER_SPEED, "Player_sprite_v1");
+        enemies.clear();
+        for (LevelConfig.EnemySpawn es : config.enemySpawns) {
+            enemies.add(new Enemy(enemyEntities, es.position.x, es.position.y, 80, "enemy_blob", es.type));
+        }
+    }
+
+    // hands the enemies the level's navigation and visibility data and buckets them
+    private void prepareEnemies() {
+        for (Enemy e : enemies) {
+            e.setPathfinder(pathfinder);
+            e.setFlowFields(flowFields);
+            e.setPathRequests(pathRequests);
+            // Set grenade explosion callback for BOMBERs
+            e.setLevelScreenListener(this::createGrenadeExplosion);
+            enemyGrid.update(e);
+        }
+    }
+
+    /**
+     * Puts the level back to its start: a fresh player and enemies at their spawn points and
+     * nothing in flight. The Box2D world and its static bodies, the pathfinding grid, cached flow
+     * fields and visibility data only depend on the map and are kept, so this takes about as
+     * long as creating the characters.
+     */
+    public void reset() {
+        player.dispose(); // silences its looping sounds
+        if (pathRequests != null) {
+            for (Enemy e : enemies) {
+                pathRequests.cancel(e);
+            }
+        }
+        grenades.clear(world);
+        bullets.clear();
+        soundEvents.clear();
+        enemyGrid.clear();
+        aiScheduler.clear();
+        enemyEntities.store.clear();
+        dying.clear();
+        corpses.clear();
+        drops.clear();
+
+        spawnCharacters();
+        prepareEnemies();
+
+        wasGrenadeHeld = false;
+        accumulator = 0f;
+        currentSpreadMultiplier = 1.0f;
+    }
+
+    /**
+     * Runs as many fixed ticks as fit in the frame time so far, at most {@link #MAX_TICKS_PER_FRAME}.
+     * Presses in the input are cleared once a tick has used them. Returns the number of ticks run.
+     */
+    public int advance(float frameDelta, InputFrame input) {
+        accumulator += Math.min(frameDelta, MAX_TICKS_PER_FRAME * TICK);
+        int ticks = 0;
+        while (accumulator >= TICK && ticks < MAX_TICKS_PER_FRAME) {
+            step(TICK, input);
+            input.clearPresses();
+            accumulator -= TICK;
+            ticks++;
+        }
+        return ticks;
+    }
+
+    // how far the current frame is between the last two ticks, for drawing
+    public float getInterpolationAlpha() {
+        return Math.min(accumulator / TICK, 1f);
+    }
+
+    /**
+     * Advances the level by delta seconds with the given input. The game always passes
+     * {@link #TICK} through {@link #advance}; headless runs may call this directly.
+     */
+    public void step(float delta, InputFrame input) {
+        savePreviousPositions();
+        // hand paths finished by the background workers to their enemies before anyone updates
+        if (pathRequests != null) pathRequests.update();
+        world.step(delta, 6, 2); // advance the physics simulation
+
+        player.update(delta, input, enemyGrid, mapManager.getCollisionGrid());
+        player.clampPosition(mapManager.getMapWidth(), mapManager.getMapHeight());
+
+        // aim from the player to the crosshair
+        float dx = input.aimX - player.getX();
+        float dy = input.aimY - player.getY();
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+
+        // releasing G throws the grenade towards the crosshair
+        if (!input.grenadeHeld && wasGrenadeHeld && player.hasGrenades()) {
+            float grenadeAimAngle = MathUtils.atan2(dy, dx);
+            float clampedDistance = Math.min(distance, MAX_GRENADE_DISTANCE);
+            float targetX = player.getX() + clampedDistance * MathUtils.cos(grenadeAimAngle);
+            float targetY = player.getY() + clampedDistance * MathUtils.sin(grenadeAimAngle);
+
+            grenades.spawn(world, player.getX(), player.getY(), targetX, targetY, 2f); // 2 seconds fuse time
+            player.useGrenade();
+        }
+        wasGrenadeHeld = input.grenadeHeld;
+
+        // Update and remove expired sound events
+        soundEvents.update(delta);
+
+        // Get weapon-specific spread and expansion values
+        Weapon currentWeapon = player.getCurrentWeapon();
+        float expansionFactor = currentWeapon != null ? currentWeapon.getReticleExpansionRate() : 1.5f; // Default fallback
+        float contractionRate = currentWeapon != null ? currentWeapon.getReticleContractionRate() : 0.5f; // Default fallback
+
+        boolean shotFired = false;
+        if (input.firePressed && !input.grenadeHeld) {
+            float dirX = dx / distance;
+            float dirY = dy / distance;
+            if (currentWeapon instanceof Shotgun) {
+                shotFired = player.fireShotgun(bullets, player.getX(), player.getY(), dirX, dirY, currentSpreadMultiplier);
+            } else if (!(currentWeapon instanceof Carbine)) {
+                shotFired = player.fireWeapon(bullets, player.getX(), player.getY(), dirX, dirY, currentSpreadMultiplier);
+            }
+        }
+        if (currentWeapon instanceof Carbine && input.fireHeld && !input.grenadeHeld) {
+            if (player.fireWeapon(bullets, player.getX(), player.getY(), dx / distance, dy / distance, currentSpreadMultiplier)) {
+                shotFired = true;
+            }
+        }
+
+        if (shotFired) {
+            // Increase spread when a shot is actually fired, but cap it at the maximum
+            currentSpreadMultiplier = Math.min(currentSpreadMultiplier + expansionFactor, maxSpreadMultiplier);
+            // Gunshot sound event, enemies hear it
+            soundEvents.emit(
+                player.getX(), player.getY(),
+                500f, // gunshot max radius
+                0.01f, // duration in seconds
+                SoundEvent.Type.GUNSHOT
+            );
+        } else {
+            // Gradually decrease spread when not firing
+            currentSpreadMultiplier = Math.max(1.0f, currentSpreadMultiplier - contractionRate * delta);
+        }
+
+        // death animations of the recently killed
+        for (int i = dying.size - 1; i >= 0; i--) {
+            if (!dying.get(i).advanceDeath(delta)) dying.removeIndex(i);
+        }
+
+        // think: every enemy looks and listens from where it stands, in parallel
+        thinking.perceive(perception, player, mapManager.getCollisionGrid(), soundEvents);
+
+        // which enemies get a turn, the ones the AI budget held back last tick first
+        aiScheduler.beginTick();
+        acting.clear();
+        Array<Enemy> carriedOver = aiScheduler.getCarriedOver();
+        for (int i = 0; i < carriedOver.size; i++) {
+            schedule(carriedOver.get(i), delta);
+        }
+        for (int i = 0; i < enemies.size; i++) {
+            schedule(enemies.get(i), delta);
+        }
+        // think: those decide what they want to do, in parallel; nobody moves yet
+        thinking.decide(acting, player);
+        // commit: one at a time in the same order, so the first to step somewhere gets there
+        for (int i = 0; i < acting.size; i++) {
+            commitEnemy(acting.get(i));
+        }
+        aiScheduler.endTick();
+
+        // moves every bullet, applies hits and drops the ones that hit something or left the map
+        bullets.update(delta, enemyGrid, mapManager.getCollisionGrid(), player, mapManager.getMapWidth(), mapManager.getMapHeight());
+
+        // fuses, explosions (their shrapnel flies from the next tick) and finished grenades
+        grenades.update(delta, world, this::createGrenadeExplosion);
+
+        retireDead();
+
+        // check player collision with enemy item drops
+        drops.pickUp(player);
+    }
+
+    // lines the enemy up for decide and commit if the AI scheduler gives it a turn this tick
+    private void schedule(Enemy e, float delta) {
+        // 0 when far away and calm, it catches up on its turn
+        if (aiScheduler.sliceFor(e, player, delta) > 0f) acting.add(e);
+    }
+
+    // commit phase of one enemy: moves, paths and its shot
+    private void commitEnemy(Enemy e) {
+        e.commit(mapManager.getCollisionGrid(), enemyGrid);
+        enemyGrid.update(e); // rebucket right away so the next enemy sees where this one went
+        if (e.wantsToShoot()) {
+            // Add spread to enemy bullets (same as player pistol/carbine)
+            float spreadAngle = 6.0f;
+            float angle = (float) (Math.atan2(e.getShootDirY(), e.getShootDirX()) + Math.toRadians(MathUtils.random(-spreadAngle, spreadAngle)));
+            bullets.spawn(e.getX(), e.getY(), (float) Math.cos(angle), (float) Math.sin(angle), e, BulletSystem.DEFAULT_DAMAGE);
+            e.playShootSound(); // Play enemy shooting sound
+            e.setWantsToShoot(false); // Reset shooting intent
+        }
+    }
+
+    // moves the enemies killed this tick out of the live list
+    private void retireDead() {
+        for (int i = 0; i < enemies.size; ) {
+            Enemy e = enemies.get(i);
+            if (!e.isDead()) {
+                i++;
+                continue;
+            }
+            enemies.removeIndex(i); // keeps the update order of the others
+            enemyGrid.remove(e);
+            if (pathRequests != null) pathRequests.cancel(e);
+            e.retire(); // leaves the entity store, corpses don't move and have nothing to interpolate
+            dying.add(e);
+            corpses.add(e);
+            if (e.getDropType() != null) drops.spawn(e.getDropX(), e.getDropY(), e.getDropType());
+        }
+    }
+
+    private void savePreviousPositions() {
+        player.savePreviousPosition();
+        enemyEntities.transforms.savePrevious(enemyEntities.size());
+        grenades.savePreviousPositions();
+        // bullets keep their own, they only move inside BulletSystem.update
+    }
+
+    // creates a grenade explosion with bullets spreading in a snowflake pattern (32 directions)
+    private void createGrenadeExplosion(float x, float y) {
+        int bulletCount = 32;
+
+        // create bullets in a circle (every 11.25 degreees)
+        for (int i = 0; i < bulletCount; i++) {
+            // calculate angle for each bullet in rads
+            float angle = (float) (i * (2 * Math.PI / bulletCount));
+
+            // calculate direction vector for each angle
+            float dirX = (float) Math.cos(angle);
+            float dirY = (float) Math.sin(angle);
+
+            bullets.spawn(x, y, dirX, dirY, null, BulletSystem.DEFAULT_DAMAGE); // null owner means explosion bullet
+        }
+
+        // Add grenade sound event
+        soundEvents.emit(
+            x, y,
+            600f, // grenade explosion max radius
+            0.5f, // duration in seconds
+            SoundEvent.Type.GRENADE
+        );
+        grenadeExplosionSound.play(1.0f);
+    }
+
+    /**
+     * True if a live enemy within radius of (x, y) can be seen from the player.
+     */
+    public boolean isEnemyVisibleNear(float x, float y, float radius) {
+        nearbyEnemies.clear();
+        for (Enemy e : enemyGrid.within(x, y, radius, nearbyEnemies)) {
+            if (visibleSet.mayBeVisible(player.getX(), player.getY(), e.getX(), e.getY())
+                && mapManager.getVisibilityGrid().hasLineOfSight(player.getX(), player.getY(), e.getX(), e.getY())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // reticle spread angle in degrees for the current weapon
+    public float getSpreadAngle() {
+        Weapon currentWeapon = player.getCurrentWeapon();
+        float baseSpreadAngle = currentWeapon != null ? currentWeapon.getSpreadAngle() : 3.0f; // Default fallback
+        return baseSpreadAngle * currentSpreadMultiplier;
+    }
+
+    public boolean areAllEnemiesDead() {
+        return enemies.size == 0;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    // the live enemies
+    public Array<Enemy> getEnemies() {
+        return enemies;
+    }
+
+    // dead enemies in the order they died, with their drops
+    public Array<Enemy> getCorpses() {
+        return corpses;
+    }
+
+    public BulletSystem getBullets() {
+        return bullets;
+    }
+
+    public GrenadeSystem getGrenades() {
+        return grenades;
+    }
+
+    public Array<SoundEvent> getSoundEvents() {
+        return soundEvents.getEvents();
+    }
+
+    // SoundFields built for occluded sound so far, 0 when the level doesn't occlude it
+    public int getSoundFieldCount() {
+        return soundEvents.getFieldCount();
+    }
+
+    public DropSystem getDrops() {
+        return drops;
+    }
+
+    public AiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+
+    public MapManager getMapManager() {
+        return mapManager;
+    }
+
+    @Override
+    public void dispose() {
+        world.dispose();
+        if (pathRequests != null) pathRequests.dispose();
+        thinking.dispose();
+        visibleSet.dispose();
+        player.dispose(); // sounds belong to GameAssets
+    }
+}
@@ -0,0 +1,58 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Fills an {@link InputFrame} from the keyboard and mouse once per rendered frame.
+ * The only place gameplay input touches Gdx.input.
+ *
+ * Presses are added to the ones still pending rather than replacing them: a frame can run no
+ * simulation step at all, and the press has to reach the next one that does.
+ */
+public class GdxInputSource {
+    private final Viewport viewport;
+    private final InputFrame frame = new InputFrame();
+    private final Vector3 mouseWorld = new Vector3();
+
+    public GdxInputSource(Viewport viewport) {
+        this.viewport = viewport;
+    }
+
+    public InputFrame poll() {
+        frame.moveUp = Gdx.input.isKeyPressed(Input.Keys.W);
+        frame.moveDown = Gdx.input.isKeyPressed(Input.Keys.S);
+        frame.moveLeft = Gdx.input.isKeyPressed(Input.Keys.A);
+        frame.moveRight = Gdx.input.isKeyPressed(Input.Keys.D);
+
+        // get mouse position in screen coordinates
+        int mouseX = Gdx.input.getX();
+        int mouseY = Gdx.input.getY();
+
+        // clamp mouse position to screen bounds
+        int clampedMouseX = MathUtils.clamp(mouseX, 0, Gdx.graphics.getWidth() - 1);
+        int clampedMouseY = MathUtils.clamp(mouseY, 0, Gdx.graphics.getHeight() - 1);
+
+        // if the mouse is outside the screen, reset its position
+        if (mouseX != clampedMouseX || mouseY != clampedMouseY) {
+            Gdx.input.setCursorPosition(clampedMouseX, clampedMouseY);
+        }
+
+        // convert clamped mouse position to world coordinates
+        viewport.unproject(mouseWorld.set(clampedMouseX, clampedMouseY, 0));
+        frame.aimX = mouseWorld.x;
+        frame.aimY = mouseWorld.y;
+
+        frame.firePressed |= Gdx.input.isButtonJustPressed(Input.Buttons.LEFT);
+        frame.fireHeld = Gdx.input.isButtonPressed(Input.Buttons.LEFT);
+        frame.grenadeHeld = Gdx.input.isKeyPressed(Input.Keys.G);
+        frame.healHeld = Gdx.input.isKeyPressed(Input.Keys.F);
+        frame.reloadPressed |= Gdx.input.isKeyJustPressed(Input.Keys.R);
+        frame.previousWeaponPressed |= Gdx.input.isKeyJustPressed(Input.Keys.Q);
+        frame.nextWeaponPressed |= Gdx.input.isKeyJustPressed(Input.Keys.E);
+        return frame;
+    }
+}
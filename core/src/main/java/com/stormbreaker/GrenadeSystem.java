@@ -0,0 +1,286 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.World;
+
+/**
+ * Every thrown grenade, stored as parallel arrays like {@link BulletSystem}.
+ *
+ * A grenade is a small Box2D body that bounces off the map until its fuse runs out, then stays
+ * where it is while its explosion plays. Live grenades fill indices 0 .. size - 1 and a finished
+ * one is removed by moving the last grenade into its slot. Each body's user data is this system,
+ * which is how the contact listener recognises grenade bounces.
+ *
+ * The sprites are only looked up when drawing, so headless runs never need them.
+ */
+public class GrenadeSystem {
+    public static final float PPM = 100f; // pixels per meter for scaling for box2d
+
+    private static final float RADIUS = 4.5f;
+    private static final float SPEED = 350f;
+    private static final float BLINK_DURATION = 0.5f; //grenade blinks during last half sec
+    private static final int EXPLOSION_FRAMES = 12;
+    private static final float EXPLOSION_FRAME_TIME = 0.05f;
+    private static final float EXPLOSION_DURATION = EXPLOSION_FRAMES * EXPLOSION_FRAME_TIME;
+
+    private final SoundEventBus soundEvents; // bounces are heard by enemies
+    private final Sound bounceSound;
+
+    private int size;
+    private Body[] body;
+    private float[] fuseTime;
+    private float[] timeAlive;
+    private float[] distanceTraveled; // meters
+    private float[] maxTravelDistance;
+    private float[] lastX; // body position at the last update, for the distance travelled
+    private float[] lastY;
+    private float[] previousX; // body position when the current tick started
+    private float[] previousY;
+    private float[] rotation; // random rotation angle for the grenade sprite
+    private float[] explosionTimer; // time since the explosion started
+    private float[] explosionX; // pixels
+    private float[] explosionY;
+    private boolean[] exploded;
+    private boolean[] damageTriggered; // whether the explosion has been handed to the listener
+
+    private TextureRegion grenadeTexture;
+    private Animation<TextureRegion> explosionAnimation;
+
+    public GrenadeSystem(SoundEventBus soundEvents, Sound bounceSound) {
+        this.soundEvents = soundEvents;
+        this.bounceSound = bounceSound;
+        allocate(8);
+    }
+
+    /**
+     * Throws a grenade from (x, y) towards (targetX, targetY), where it stops rolling.
+     */
+    public void spawn(World world, float x, float y, float targetX, float targetY, float fuse) {
+        if (size == body.length) allocate(size * 2);
+        int i = size++;
+
+        // Define the body
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        bodyDef.position.set(x / PPM, y / PPM);
+        Body b = world.createBody(bodyDef);
+
+        // Create circular shape
+        CircleShape shape = new CircleShape();
+        shape.setRadius(RADIUS / PPM);
+
+        // Define fixture
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.density = 1f;
+        fixtureDef.restitution = 0.2f; // make it bouncy
+        b.createFixture(fixtureDef);
+        shape.dispose();
+
+        // Calculate velocity
+        float dx = targetX - x;
+        float dy = targetY - y;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        b.setLinearVelocity((dx / length) * SPEED / PPM, (dy / length) * SPEED / PPM);
+        b.setUserData(this); // So we can identify grenades in contacts
+
+        body[i] = b;
+        fuseTime[i] = fuse;
+        timeAlive[i] = 0f;
+        distanceTraveled[i] = 0f;
+        maxTravelDistance[i] = length / PPM;
+        lastX[i] = previousX[i] = x / PPM;
+        lastY[i] = previousY[i] = y / PPM;
+        rotation[i] = MathUtils.random(360f);
+        explosionTimer[i] = 0f;
+        exploded[i] = false;
+        damageTriggered[i] = false;
+    }
+
+    /**
+     * Runs fuses and explosions for delta seconds after the physics step. A grenade whose fuse
+     * ran out is handed to the listener once, at its explosion position; grenades whose
+     * explosion has finished playing are removed from the world.
+     */
+    public void update(float delta, World world, Enemy.LevelScreenListener explosions) {
+        // backwards, so the grenade swapped into a freed slot has already been updated
+        for (int i = size - 1; i >= 0; i--) {
+            timeAlive[i] += delta;
+
+            Vector2 position = body[i].getPosition();
+            distanceTraveled[i] += Vector2.dst(position.x, position.y, lastX[i], lastY[i]);
+            lastX[i] = position.x;
+            lastY[i] = position.y;
+
+            if (!exploded[i] && distanceTraveled[i] >= maxTravelDistance[i]) {
+                body[i].setLinearVelocity(0, 0);
+            }
+
+            if (!exploded[i] && timeAlive[i] >= fuseTime[i]) {
+                body[i].setLinearVelocity(0, 0);
+                exploded[i] = true;
+                explosionX[i] = position.x * PPM;
+                explosionY[i] = position.y * PPM;
+            }
+
+            if (exploded[i]) {
+                explosionTimer[i] += delta;
+            }
+
+            // explosion damage right at the start of the explosion
+            if (exploded[i] && !damageTriggered[i]) {
+                damageTriggered[i] = true;
+                explosions.createGrenadeExplosion(explosionX[i], explosionY[i]);
+            }
+
+            // Only remove the grenade after its explosion animation is complete
+            if (exploded[i] && explosionTimer[i] >= EXPLOSION_DURATION) {
+                world.destroyBody(body[i]);
+                remove(i);
+            }
+        }
+    }
+
+    // called by GameSimulation before the physics step so rendering can blend between ticks
+    public void savePreviousPositions() {
+        for (int i = 0; i < size; i++) {
+            Vector2 position = body[i].getPosition();
+            previousX[i] = position.x;
+            previousY[i] = position.y;
+        }
+    }
+
+    // Call this when a grenade body bounces off something
+    public void onBounce(Body bounced) {
+        for (int i = 0; i < size; i++) {
+            if (body[i] != bounced) continue;
+            if (exploded[i] && !damageTriggered[i]) return; // about to explode anyway
+            if (bounceSound != null) bounceSound.play(0.5f);
+            Vector2 pos = bounced.getPosition();
+            soundEvents.emit(
+                pos.x * PPM, pos.y * PPM,
+                300f, // radius for bounce sound
+                0.05f, // short duration
+                SoundEvent.Type.GUNSHOT
+            );
+            return;
+        }
+    }
+
+    // removes every grenade and its body, for a level restart
+    public void clear(World world) {
+        for (int i = 0; i < size; i++) {
+            world.destroyBody(body[i]);
+            body[i] = null;
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // grenade sprites, blinking in the last moments of the fuse; alpha blends between ticks
+    public void render(SpriteBatch batch, float alpha) {
+        if (size == 0) return;
+        if (grenadeTexture == null) grenadeTexture = Sprites.get("Grenade");
+        float scale = 0.16f; // shrink sprite
+        float width = grenadeTexture.getRegionWidth() * scale;
+        float height = grenadeTexture.getRegionHeight() * scale;
+
+        for (int i = 0; i < size; i++) {
+            if (exploded[i]) continue;
+            // blink every 0.1s during the last moments of the fuse
+            if (fuseTime[i] - timeAlive[i] <= BLINK_DURATION && (int) (timeAlive[i] * 10) % 2 != 0) continue;
+
+            Vector2 current = body[i].getPosition();
+            float posX = previousX[i] + (current.x - previousX[i]) * alpha;
+            float posY = previousY[i] + (current.y - previousY[i]) * alpha;
+            float drawX = posX * PPM - width / 2f; // center horizontally
+            float drawY = posY * PPM - height / 2f;
+            // draw grenade sprite WITH random rotation
+            batch.draw(grenadeTexture, drawX, drawY, width / 2f, height / 2f, width, height, 1f, 1f, rotation[i]);
+        }
+    }
+
+    // explosion animations of the grenades that went off
+    public void renderExplosions(SpriteBatch batch) {
+        if (size == 0) return;
+        if (explosionAnimation == null) {
+            // cut the explosion sprite sheet into frames
+            TextureRegion[][] tmp = Sprites.get("Explosion").split(96, 96);
+            TextureRegion[] frames = new TextureRegion[EXPLOSION_FRAMES];
+            for (int i = 0; i < EXPLOSION_FRAMES; i++) {
+                frames[i] = tmp[0][i];
+            }
+            explosionAnimation = new Animation<>(EXPLOSION_FRAME_TIME, frames);
+        }
+        for (int i = 0; i < size; i++) {
+            if (!exploded[i]) continue;
+            TextureRegion frame = explosionAnimation.getKeyFrame(explosionTimer[i], false);
+            batch.draw(frame, explosionX[i] - 48, explosionY[i] - 48);
+        }
+    }
+
+    // moves the last grenade into slot i
+    private void remove(int i) {
+        int last = --size;
+        body[i] = body[last];
+        fuseTime[i] = fuseTime[last];
+        timeAlive[i] = timeAlive[last];
+        distanceTraveled[i] = distanceTraveled[last];
+        maxTravelDistance[i] = maxTravelDistance[last];
+        lastX[i] = lastX[last];
+        lastY[i] = lastY[last];
+        previousX[i] = previousX[last];
+        previousY[i] = previousY[last];
+        rotation[i] = rotation[last];
+        explosionTimer[i] = explosionTimer[last];
+        explosionX[i] = explosionX[last];
+        explosionY[i] = explosionY[last];
+        exploded[i] = exploded[last];
+        damageTriggered[i] = damageTriggered[last];
+        body[last] = null; // destroyed bodies must not be touched again
+    }
+
+    private void allocate(int capacity) {
+        fuseTime = copy(fuseTime, capacity);
+        timeAlive = copy(timeAlive, capacity);
+        distanceTraveled = copy(distanceTraveled, capacity);
+        maxTravelDistance = copy(maxTravelDistance, capacity);
+        lastX = copy(lastX, capacity);
+        lastY = copy(lastY, capacity);
+        previousX = copy(previousX, capacity);
+        previousY = copy(previousY, capacity);
+        rotation = copy(rotation, capacity);
+        explosionTimer = copy(explosionTimer, capacity);
+        explosionX = copy(explosionX, capacity);
+        explosionY = copy(explosionY, capacity);
+        Body[] newBody = new Body[capacity];
+        boolean[] newExploded = new boolean[capacity];
+        boolean[] newDamageTriggered = new boolean[capacity];
+        if (body != null) {
+            System.arraycopy(body, 0, newBody, 0, size);
+            System.arraycopy(exploded, 0, newExploded, 0, size);
+            System.arraycopy(damageTriggered, 0, newDamageTriggered, 0, size);
+        }
+        body = newBody;
+        exploded = newExploded;
+        damageTriggered = newDamageTriggered;
+    }
+
+    private float[] copy(float[] values, int capacity) {
+        float[] grown = new float[capacity];
+        if (values != null) System.arraycopy(values, 0, grown, 0, size);
+        return grown;
+    }
+}
@@ -2,152 +2,121 @@ package com.stormbreaker;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 
 public class HUD {
 
+    // --- Dimensions of the panel ---
+    private static final float RECT_X = 10;
+    private static final float RECT_WIDTH = 460; // Increased to accommodate ammo display
+    private static final float RECT_HEIGHT = 130;
+    private static final float LINE_SPACING = 35;
+    private static final float BAR_WIDTH = 250;
+    private static final float BAR_HEIGHT = 15;
+    private static final float AMMO_ICON_SIZE = 16f;
+
     private BitmapFont font;
-    private ShapeRenderer shapeRenderer;
-    private Texture pistolIcon;
-    private Texture carbineIcon;
-    private Texture shotgunIcon;
-    private Texture grenadeIcon;
+    private TextureRegion pistolIcon;
+    private TextureRegion carbineIcon;
+    private TextureRegion shotgunIcon;
+    private TextureRegion grenadeIcon;
     // for hud icons
-    private Texture pistolAmmoIcon;
-    private Texture shotgunAmmoIcon;
-    private Texture carbineAmmoIcon;
+    private TextureRegion pistolAmmoIcon;
+    private TextureRegion shotgunAmmoIcon;
+    private TextureRegion carbineAmmoIcon;
+
+    // the HUD only changes when the player's numbers do, so the laid out text is kept between
+    // frames and rebuilt by refresh() when the value it shows is different
+    private final GlyphLayout healthLayout = new GlyphLayout();
+    private final GlyphLayout ammoLayout = new GlyphLayout();
+    private final GlyphLayout magsLayout = new GlyphLayout();
+    private int shownHealth = -1;
+    private int shownAmmo = -1;
+    private int shownMagazineSize = -1;
+    private int shownMags = -1;
+    private String shownWeapon;
+    // layout for the current weapon, picked when it changes
+    private TextureRegion weaponIcon;
+    private TextureRegion ammoIcon;
+    private float iconSize;
+    private float iconDrop;
+    private float textOffsetX;
 
     public HUD(BitmapFont font) {
         this.font = font;
         font.getData().setScale(2f);
-        this.shapeRenderer = new ShapeRenderer();
-        pistolIcon = new Texture(Gdx.files.internal("hud_pistol1.png"));
-        carbineIcon = new Texture(Gdx.files.internal("hud_carbine1.png"));
-        shotgunIcon = new Texture(Gdx.files.internal("hud_shotgun1.png"));
-        grenadeIcon = new Texture(Gdx.files.internal("Grenade.png"));
+        pistolIcon = Sprites.get("hud_pistol1");
+        carbineIcon = Sprites.get("hud_carbine1");
+        shotgunIcon = Sprites.get("hud_shotgun1");
+        grenadeIcon = Sprites.get("Grenade");
         // load icons
-        pistolAmmoIcon = new Texture(Gdx.files.internal("pistolammo.png"));
-        shotgunAmmoIcon = new Texture(Gdx.files.internal("shotgunammo.png"));
-        carbineAmmoIcon = new Texture(Gdx.files.internal("carbineammo.png"));
+        pistolAmmoIcon = Sprites.get("pistolammo");
+        shotgunAmmoIcon = Sprites.get("shotgunammo");
+        carbineAmmoIcon = Sprites.get("carbineammo");
     }
 
-    public void render(SpriteBatch batch, Player player) {
-        float health = Math.max(0, Math.min(100, player.getHealth()));
-        float red = (100 - health) / 100f;
-        float green = health / 100f;
-        Color healthColor = new Color(red, green, 0, 1);
-
-        // --- Dimensions of rectangle ---
-        float rectX = 10;
-        float rectY = Gdx.graphics.getHeight() - 170;
-        float rectWidth = 460; // Increased to accommodate ammo display
-        float rectHeight = 130;
-
-        // --- Padding ---
-        float paddingX = rectX + 20;
-        float paddingY = rectY + rectHeight - 20;
-        float lineSpacing = 35;
+    /**
+     * The HUD is drawn in three parts so each fits a layer of the {@link RenderPass}: the filled
+     * panel and life bar, the panel border, then text and icons over them.
+     */
+    public void renderBackground(ShapeRenderer shapes, Player player) {
+        float health = getHealth(player);
 
         // --- Background ---
-        Gdx.gl.glEnable(Gdx.gl.GL_BLEND);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(new Color(0, 0, 0, 0.4f));
-        shapeRenderer.rect(rectX, rectY, rectWidth, rectHeight);
-        shapeRenderer.end();
-        Gdx.gl.glDisable(Gdx.gl.GL_BLEND);
+        shapes.setColor(0, 0, 0, 0.4f);
+        shapes.rect(RECT_X, getRectY(), RECT_WIDTH, RECT_HEIGHT);
+
+        // --- Life bar ---
+        float barX = getPaddingX();
+        float barY = getBarY();
+        shapes.setColor(Color.DARK_GRAY);
+        shapes.rect(barX, barY, BAR_WIDTH, BAR_HEIGHT);
+
+        shapes.setColor((100 - health) / 100f, health / 100f, 0, 1);
+        shapes.rect(barX, barY, (health / 100f) * BAR_WIDTH, BAR_HEIGHT);
+    }
 
+    public void renderBorder(ShapeRenderer shapes) {
         // --- Border ---
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        shapeRenderer.setColor(Color.WHITE);
-        shapeRenderer.rect(rectX, rectY, rectWidth, rectHeight);
-        shapeRenderer.end();
+        shapes.setColor(Color.WHITE);
+        shapes.rect(RECT_X, getRectY(), RECT_WIDTH, RECT_HEIGHT);
+    }
+
+    public void render(SpriteBatch batch, Player player) {
+        refresh(player);
+        float paddingX = getPaddingX();
+        float paddingY = getPaddingY();
 
         // --- Health ---
-        batch.begin();
-        font.setColor(healthColor);
-        font.draw(batch, "Health: " + (int) health, paddingX, paddingY);
+        font.draw(batch, healthLayout, paddingX, paddingY);
 
         // --- Weapon with Ammo Information ---
-        Texture weaponIcon = null;
-        float iconSize = 48;
-        float iconY = paddingY - lineSpacing * 2 - 25;
-        float textOffsetX = 60;
-        String weaponName = player.getCurrentWeaponName();
-
-        if (weaponName.equalsIgnoreCase("Pistol")) {
-            weaponIcon = pistolIcon;
-            iconSize = 48;
-            textOffsetX = 65;
-        } else if (weaponName.equalsIgnoreCase("Carbine")) {
-            weaponIcon = carbineIcon;
-            iconSize = 70;
-            iconY = paddingY - lineSpacing * 2 - 40;
-            textOffsetX = 85;
-        } else if (weaponName.equalsIgnoreCase("Shotgun")) {
-            weaponIcon = shotgunIcon;
-            iconSize = 70;
-            iconY = paddingY - lineSpacing * 2 - 55;
-            textOffsetX = 85;
+        if (weaponIcon != null) {
+            batch.draw(weaponIcon, paddingX, paddingY - LINE_SPACING * 2 - iconDrop, iconSize, iconSize);
         }
-        batch.draw(weaponIcon, paddingX, iconY, iconSize, iconSize);
-
-        font.setColor(Color.WHITE);
-        int currentAmmo = player.getTotalAmmoCount();
-        int magazineSize = player.getMagazineSize();
-        String ammoInfo = currentAmmo + "/" + magazineSize;
 
         float ammoTextX = paddingX + textOffsetX;
-        float ammoTextY = paddingY - lineSpacing * 2;
-        font.draw(batch, ammoInfo, ammoTextX, ammoTextY);
-
-        float ammoIconSize = 16f;
+        float ammoTextY = paddingY - LINE_SPACING * 2;
+        font.draw(batch, ammoLayout, ammoTextX, ammoTextY);
 
         // show 1 ammo icon next to chamber info with count
-        if (weaponName.equalsIgnoreCase("Pistol")) {
-            int count = player.getPistolMags();
-            float iconX = ammoTextX + 100;
-            float iconY2 = ammoTextY - ammoIconSize * 0.75f; // tweaked for visuals in hud
-            batch.draw(pistolAmmoIcon, iconX, iconY2, ammoIconSize, ammoIconSize);
-            font.draw(batch, "x" + count, iconX + ammoIconSize + 5, iconY2 + ammoIconSize * 0.8f);
-        } else if (weaponName.equalsIgnoreCase("Shotgun")) {
-            int count = player.getShotgunMags();
-            float iconX = ammoTextX + 100;
-            float iconY2 = ammoTextY - ammoIconSize * 0.75f;
-            batch.draw(shotgunAmmoIcon, iconX, iconY2, ammoIconSize, ammoIconSize);
-            font.draw(batch, "x" + count, iconX + ammoIconSize + 5, iconY2 + ammoIconSize * 0.8f);
-        } else if (weaponName.equalsIgnoreCase("Carbine")) {
-            int count = player.getCarbineMags();
+        if (ammoIcon != null) {
             float iconX = ammoTextX + 100;
-            float iconY2 = ammoTextY - ammoIconSize * 0.75f;
-            batch.draw(carbineAmmoIcon, iconX, iconY2, ammoIconSize, ammoIconSize);
-            font.draw(batch, "x" + count, iconX + ammoIconSize + 5, iconY2 + ammoIconSize * 0.8f);
+            float iconY2 = ammoTextY - AMMO_ICON_SIZE * 0.75f; // tweaked for visuals in hud
+            batch.draw(ammoIcon, iconX, iconY2, AMMO_ICON_SIZE, AMMO_ICON_SIZE);
+            font.draw(batch, magsLayout, iconX + AMMO_ICON_SIZE + 5, iconY2 + AMMO_ICON_SIZE * 0.8f);
         }
 
-        batch.end();
-
-        // --- Life bar ---
-        float barX = paddingX;
-        float barY = paddingY - lineSpacing - 8;
-        float barWidth = 250;
-        float barHeight = 15;
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(Color.DARK_GRAY);
-        shapeRenderer.rect(barX, barY, barWidth, barHeight);
-
-        shapeRenderer.setColor(healthColor);
-        shapeRenderer.rect(barX, barY, (health / 100f) * barWidth, barHeight);
-        shapeRenderer.end();
-
         // draw grenades as individual icons to the right of the health bar
-        batch.begin();
+        float barY = getBarY();
         float grenadeIconSize = 24;
         float grenadeSpacing = 5;
-        float grenadeStartX = barX + barWidth + 10; // pos to the right of health bar
-        float grenadeY = barY - grenadeIconSize / 2 + barHeight / 2;
+        float grenadeStartX = paddingX + BAR_WIDTH + 10; // pos to the right of health bar
+        float grenadeY = barY - grenadeIconSize / 2 + BAR_HEIGHT / 2;
 
         // draw one icon for each grenade the player has
         int grenadeCount = player.getGrenadeCount();
@@ -158,17 +127,87 @@ public class HUD {
                     grenadeIconSize,
                     grenadeIconSize);
         }
-        batch.end();
+    }
+
+    // lays text out again only for the numbers that changed since the last frame
+    private void refresh(Player player) {
+        int health = (int) getHealth(player);
+        if (health != shownHealth) {
+            shownHealth = health;
+            font.setColor((100 - health) / 100f, health / 100f, 0, 1);
+            healthLayout.setText(font, "Health: " + health);
+        }
+
+        String weaponName = player.getCurrentWeaponName();
+        if (!weaponName.equals(shownWeapon)) {
+            shownWeapon = weaponName;
+            shownMags = -1; // the count belongs to another weapon now
+            weaponIcon = null;
+            ammoIcon = null;
+            iconSize = 48;
+            iconDrop = 25;
+            textOffsetX = 60;
+            if (weaponName.equalsIgnoreCase("Pistol")) {
+                weaponIcon = pistolIcon;
+                ammoIcon = pistolAmmoIcon;
+                iconSize = 48;
+                textOffsetX = 65;
+            } else if (weaponName.equalsIgnoreCase("Carbine")) {
+                weaponIcon = carbineIcon;
+                ammoIcon = carbineAmmoIcon;
+                iconSize = 70;
+                iconDrop = 40;
+                textOffsetX = 85;
+            } else if (weaponName.equalsIgnoreCase("Shotgun")) {
+                weaponIcon = shotgunIcon;
+                ammoIcon = shotgunAmmoIcon;
+                iconSize = 70;
+                iconDrop = 55;
+                textOffsetX = 85;
+            }
+        }
+
+        int ammo = player.getTotalAmmoCount();
+        int magazineSize = player.getMagazineSize();
+        if (ammo != shownAmmo || magazineSize != shownMagazineSize) {
+            shownAmmo = ammo;
+            shownMagazineSize = magazineSize;
+            font.setColor(Color.WHITE);
+            ammoLayout.setText(font, ammo + "/" + magazineSize);
+        }
+
+        int mags = 0;
+        if (ammoIcon == pistolAmmoIcon) mags = player.getPistolMags();
+        else if (ammoIcon == shotgunAmmoIcon) mags = player.getShotgunMags();
+        else if (ammoIcon == carbineAmmoIcon) mags = player.getCarbineMags();
+        if (mags != shownMags) {
+            shownMags = mags;
+            font.setColor(Color.WHITE);
+            magsLayout.setText(font, "x" + mags);
+        }
+    }
+
+    private float getHealth(Player player) {
+        return Math.max(0, Math.min(100, player.getHealth()));
+    }
+
+    private float getRectY() {
+        return Gdx.graphics.getHeight() - 170;
+    }
+
+    private float getPaddingX() {
+        return RECT_X + 20;
+    }
+
+    private float getPaddingY() {
+        return getRectY() + RECT_HEIGHT - 20;
+    }
+
+    private float getBarY() {
+        return getPaddingY() - LINE_SPACING - 8;
     }
        //no idea if needed in this class but why not
     public void dispose() {
-        pistolIcon.dispose();
-        carbineIcon.dispose();
-        shotgunIcon.dispose();
-        grenadeIcon.dispose();
-        pistolAmmoIcon.dispose();
-        shotgunAmmoIcon.dispose();
-        carbineAmmoIcon.dispose();
-        shapeRenderer.dispose();
+        // icons belong to the shared sprite atlas, nothing else to release
     }
 }
@@ -0,0 +1,47 @@
+package com.stormbreaker;
+
+/**
+ * What the player asked for during one simulation step.
+ *
+ * {@link GameSimulation} only ever reads input through this, so the same simulation can be
+ * driven by the keyboard and mouse ({@link GdxInputSource}) or by a script in a headless run.
+ * "Pressed" fields are true only on the step the key or button went down, "held" fields on
+ * every step it stays down.
+ */
+public class InputFrame {
+    public boolean moveUp;
+    public boolean moveDown;
+    public boolean moveLeft;
+    public boolean moveRight;
+
+    // crosshair position in world coordinates
+    public float aimX;
+    public float aimY;
+
+    public boolean firePressed;
+    public boolean fireHeld;
+    public boolean grenadeHeld; // aiming a grenade, it is thrown when this goes false again
+    public boolean healHeld;
+    public boolean reloadPressed;
+    public boolean previousWeaponPressed;
+    public boolean nextWeaponPressed;
+
+    public boolean isMoving() {
+        return moveUp || moveDown || moveLeft || moveRight;
+    }
+
+    // drops the one-step presses once a simulation step has used them; held keys carry on
+    public void clearPresses() {
+        firePressed = false;
+        reloadPressed = false;
+        previousWeaponPressed = false;
+        nextWeaponPressed = false;
+    }
+
+    // resets everything except the aim, which stays where it was
+    public void clear() {
+        moveUp = moveDown = moveLeft = moveRight = false;
+        firePressed = fireHeld = grenadeHeld = healHeld = false;
+        reloadPressed = previousWeaponPressed = nextWeaponPressed = false;
+    }
+}
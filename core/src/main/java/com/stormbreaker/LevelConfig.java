@@ -8,11 +8,18 @@ public class LevelConfig {
     public Vector2 playerSpawn;
     public Array<EnemySpawn> enemySpawns;
     public EnemySpawn[] enemies;
+    public String victoryImagePath; // shown when the level is cleared, may be null
+    public boolean occludedSound; // sounds travel around walls instead of straight through them
 
     public LevelConfig(String mapPath, Vector2 playerSpawn, Array<EnemySpawn> enemySpawns) {
+        this(mapPath, playerSpawn, enemySpawns, null);
+    }
+
+    public LevelConfig(String mapPath, Vector2 playerSpawn, Array<EnemySpawn> enemySpawns, String victoryImagePath) {
         this.mapPath = mapPath;
         this.playerSpawn = playerSpawn;
         this.enemySpawns = enemySpawns;
+        this.victoryImagePath = victoryImagePath;
     }
 
     public static class EnemySpawn {
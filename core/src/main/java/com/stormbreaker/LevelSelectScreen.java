@@ -60,7 +60,7 @@ public class LevelSelectScreen implements Screen {
                 clickSound.play();
                 game.currentLevelIndex = 0;
                 game.menuMusic.stop();
-                game.setScreen(new MainGameplayScreen(game));
+                game.setScreen(new LoadingScreen(game));
                 dispose();
             }
         });
@@ -71,7 +71,7 @@ public class LevelSelectScreen implements Screen {
                 clickSound.play();
                 game.currentLevelIndex = 1;
                 game.menuMusic.stop();
-                game.setScreen(new MainGameplayScreen(game));
+                game.setScreen(new LoadingScreen(game));
                 dispose();
             }
         });
@@ -82,7 +82,7 @@ public class LevelSelectScreen implements Screen {
                 clickSound.play();
                 game.currentLevelIndex = 2;
                 game.menuMusic.stop();
-                game.setScreen(new MainGameplayScreen(game));
+                game.setScreen(new LoadingScreen(game));
                 dispose();
             }
         });
@@ -0,0 +1,106 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * Loads the current level's assets through {@link GameAssets} a few milliseconds per frame and
+ * draws a progress bar meanwhile, then switches to the gameplay screen.
+ *
+ * The screen being left, if any, is only disposed once loading is done: its references keep
+ * the assets both levels share loaded, so going on to the next level only loads its map and
+ * victory image. Restarting a level doesn't come through here at all, see
+ * {@link MainGameplayScreen#resetLevel()}.
+ */
+public class LoadingScreen implements Screen {
+    // time per frame given to the asset manager, the rest of the frame keeps the bar moving
+    private static final int LOAD_BUDGET_MILLIS = 12;
+
+    private final StormbreakerGame game;
+    private final Screen leaving;
+    private SpriteBatch batch;
+    private ShapeRenderer shapeRenderer;
+    private BitmapFont font;
+    private GlyphLayout layout;
+
+    public LoadingScreen(StormbreakerGame game) {
+        this(game, null);
+    }
+
+    // leaving is disposed when the level has loaded, pass null if nothing needs disposing
+    public LoadingScreen(StormbreakerGame game, Screen leaving) {
+        this.game = game;
+        this.leaving = leaving;
+        GameAssets.queueLevel(game.levelConfigs.get(game.currentLevelIndex));
+    }
+
+    @Override
+    public void show() {
+        batch = new SpriteBatch();
+        shapeRenderer = new ShapeRenderer();
+        font = new BitmapFont();
+        font.getData().setScale(2.0f);
+        layout = new GlyphLayout();
+    }
+
+    @Override
+    public void render(float delta) {
+        boolean loaded = GameAssets.manager().update(LOAD_BUDGET_MILLIS);
+        if (loaded) {
+            if (leaving != null) leaving.dispose();
+            game.setScreen(new MainGameplayScreen(game));
+            dispose();
+            return;
+        }
+
+        ScreenUtils.clear(0f, 0f, 0f, 1f);
+        float width = Gdx.graphics.getWidth();
+        float height = Gdx.graphics.getHeight();
+
+        // progress bar in the middle of the screen
+        float barWidth = width * 0.5f;
+        float barHeight = 20f;
+        float barX = (width - barWidth) / 2f;
+        float barY = height / 2f - barHeight / 2f;
+        shapeRenderer.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(Color.DARK_GRAY);
+        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        shapeRenderer.setColor(Color.WHITE);
+        shapeRenderer.rect(barX, barY, barWidth * GameAssets.manager().getProgress(), barHeight);
+        shapeRenderer.end();
+
+        String text = "Loading";
+        layout.setText(font, text);
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        batch.begin();
+        font.draw(batch, layout, (width - layout.width) / 2f, barY + barHeight + 50f);
+        batch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+    }
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void hide() {}
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        shapeRenderer.dispose();
+        font.dispose();
+    }
+}
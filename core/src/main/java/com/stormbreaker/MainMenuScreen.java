@@ -61,7 +61,7 @@ public class MainMenuScreen implements Screen {
             public void clicked(InputEvent event, float x, float y) {
                 clickSound.play();
                 game.currentLevelIndex = 0;
-                game.setScreen(new MainGameplayScreen(game));
+                game.setScreen(new LoadingScreen(game));
                 game.menuMusic.stop();
                 dispose();
             }
@@ -93,9 +93,10 @@ public class PauseMenuScreen implements Screen {
             public void clicked(InputEvent event, float x, float y) {
                 clickSound.play();
                 if (previousScreen instanceof MainGameplayScreen) {
-                    ((MainGameplayScreen) previousScreen).stopMusic();
+                    ((MainGameplayScreen) previousScreen).resetLevel(); // restart in place, nothing is reloaded
                 }
-                game.setScreen(new MainGameplayScreen(game));
+                game.setScreen(previousScreen);
+                Gdx.input.setCursorCatched(true);
                 game.menuMusic.stop();
                 dispose(); 
             }
@@ -106,6 +107,7 @@ public class PauseMenuScreen implements Screen {
             public void clicked(InputEvent event, float x, float y) {
                 clickSound.play();
                 game.setScreen(new MainMenuScreen(game));
+                previousScreen.dispose(); // the level is left for good, release its assets
                 dispose(); // fix ghost clicks
             }
         });
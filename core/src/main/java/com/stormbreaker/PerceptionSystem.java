@@ -0,0 +1,70 @@
+package com.stormbreaker;
+
+import com.stormbreaker.ecs.Transforms;
+import com.stormbreaker.tools.CollisionGrid;
+import com.stormbreaker.tools.PotentiallyVisibleSet;
+import com.stormbreaker.tools.VisibilityGrid;
+
+/**
+ * First half of the enemies' think phase: for a range of {@link EnemyEntities} indices, what
+ * each enemy hears and whether it sees the player from where it stands, written to its
+ * {@link Perceptions}. Reads the transforms and the shared level data only, so ranges can run
+ * on different threads; {@link EnemyThinking} splits them up.
+ *
+ * Without a VisibilityGrid the rays go through the CollisionGrid, which is render thread only,
+ * see {@link #isThreadSafe}.
+ */
+public class PerceptionSystem {
+    // how far enemies see, and the width of their vision cone in degrees
+    public static final float VISION_DISTANCE = 1000f;
+    public static final float VISION_ANGLE = 100f;
+
+    private final EnemyEntities entities;
+    private final VisibilityGrid visibility; // exact line-of-sight, may be null
+    private final PotentiallyVisibleSet visibleSet; // cell-to-cell visibility, rules most rays out early; may be null
+
+    public PerceptionSystem(EnemyEntities entities, VisibilityGrid visibility, PotentiallyVisibleSet visibleSet) {
+        this.entities = entities;
+        this.visibility = visibility;
+        this.visibleSet = visibleSet;
+    }
+
+    // true with a VisibilityGrid, whose rays are safe from any thread
+    public boolean isThreadSafe() {
+        return visibility != null;
+    }
+
+    public int size() {
+        return entities.size();
+    }
+
+    public void perceive(int from, int to, float playerX, float playerY, CollisionGrid mapCollisions, SoundEventBus soundEvents) {
+        Transforms transforms = entities.transforms;
+        Perceptions perceptions = entities.perceptions;
+        for (int i = from; i < to; i++) {
+            float x = transforms.x[i];
+            float y = transforms.y[i];
+            perceptions.heardSound[i] = soundEvents.firstHeardAt(x, y);
+            perceptions.playerInSight[i] = canSee(x, y, transforms.rotation[i], playerX, playerY, mapCollisions);
+        }
+    }
+
+    // true if (targetX, targetY) is within vision distance, inside the vision cone and not behind a wall
+    private boolean canSee(float x, float y, float rotation, float targetX, float targetY, CollisionGrid mapCollisions) {
+        float dx = targetX - x;
+        float dy = targetY - y;
+        if (dx * dx + dy * dy > VISION_DISTANCE * VISION_DISTANCE) return false;
+        float angleToTarget = ((float) Math.toDegrees(Math.atan2(dy, dx)) + 360) % 360;
+        float facingAngle = (rotation + 360) % 360;
+        float angleDifference = Math.abs(angleToTarget - facingAngle);
+        if (angleDifference > 180) angleDifference = 360 - angleDifference;
+        return angleDifference <= VISION_ANGLE / 2f && hasLineOfSight(x, y, targetX, targetY, mapCollisions);
+    }
+
+    // true if nothing on the map blocks the line from (x, y) to (targetX, targetY)
+    private boolean hasLineOfSight(float x, float y, float targetX, float targetY, CollisionGrid mapCollisions) {
+        if (visibleSet != null && !visibleSet.mayBeVisible(x, y, targetX, targetY)) return false;
+        if (visibility != null) return visibility.hasLineOfSight(x, y, targetX, targetY);
+        return !mapCollisions.intersectsSegment(x, y, targetX, targetY);
+    }
+}
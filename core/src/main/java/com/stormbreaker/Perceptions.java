@@ -0,0 +1,39 @@
+package com.stormbreaker;
+
+import java.util.Arrays;
+
+import com.stormbreaker.ecs.ComponentArray;
+
+/**
+ * What each enemy noticed this tick, written by {@link PerceptionSystem} and read by the
+ * enemy's behaviour tree and the {@link AiScheduler}.
+ */
+public class Perceptions extends ComponentArray {
+    public SoundEvent[] heardSound = new SoundEvent[0]; // null if it heard nothing
+    public boolean[] playerInSight = new boolean[0];
+
+    // true if it saw the player or heard a sound this tick
+    public boolean noticedSomething(int index) {
+        return heardSound[index] != null || playerInSight[index];
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        heardSound = Arrays.copyOf(heardSound, capacity);
+        playerInSight = Arrays.copyOf(playerInSight, capacity);
+    }
+
+    @Override
+    protected void remove(int index, int size) {
+        shiftDown(heardSound, index, size);
+        shiftDown(playerInSight, index, size);
+        heardSound[size - 1] = null;
+        playerInSight[size - 1] = false;
+    }
+
+    @Override
+    protected void clear(int size) {
+        Arrays.fill(heardSound, 0, size, null);
+        Arrays.fill(playerInSight, 0, size, false);
+    }
+}
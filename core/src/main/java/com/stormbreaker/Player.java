@@ -5,14 +5,11 @@ import com.stormbreaker.weapons.Carbine;
 import com.stormbreaker.weapons.Pistol;
 import com.stormbreaker.weapons.Shotgun;
 import com.stormbreaker.weapons.Weapon;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.stormbreaker.tools.CollisionGrid;
 import com.stormbreaker.tools.CollisionRectangle;
 import com.stormbreaker.DamageModel;
 import java.util.Random;
@@ -22,7 +19,8 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
          
 
 public class Player extends Character implements Disposable {
-    private OrthographicCamera camera;
+    private static final InputFrame NO_INPUT = new InputFrame();
+
     private CollisionRectangle collisionRectangle;
     private float playerRadius;
 
@@ -48,14 +46,14 @@ public class Player extends Character implements Disposable {
     private float walkFrameDuration = 0.1f; // seconds per frame
     private int currentWalkFrame = 0;
     
-    private Array<Texture> pistolWalkFrames = new Array<>(); // for pistol animations(have not modified yet)
-    private Array<Texture> shotgunWalkFrames = new Array<>(); // for shotgun animation(modified for beige color)
-    private Array<Texture> carbineWalkFrames = new Array<>(); //for carb animation(modified for color)
+    private Array<TextureRegion> pistolWalkFrames = new Array<>(); // for pistol animations(have not modified yet)
+    private Array<TextureRegion> shotgunWalkFrames = new Array<>(); // for shotgun animation(modified for beige color)
+    private Array<TextureRegion> carbineWalkFrames = new Array<>(); //for carb animation(modified for color)
 
 
 
     
-    private Map<String, Texture> weaponTextures = new HashMap<>();
+    private Map<String, TextureRegion> weaponTextures = new HashMap<>();
     
     private boolean isReloading = false;
     private float reloadTimer = 0f;
@@ -73,22 +71,21 @@ public class Player extends Character implements Disposable {
     private static final float BLEED_HEAL_AMOUNT = 20f;
 
     private boolean isDead = false;
-    private Texture deathFrame;
+    private TextureRegion deathFrame;
 
     private Sound bandageSound;
     private Sound medkitSound;
     
 
-    public Player(float x, float y, float speed, String texturePath, OrthographicCamera camera) {
-        super(x, y, speed, texturePath);
-        this.camera = camera;
-        this.collisionRectangle = new CollisionRectangle(x - (texture.getWidth() / 4f), y - (texture.getHeight() / 4f), texture.getWidth() / 2, texture.getHeight() / 2);
-        this.playerRadius = texture.getWidth() / 2f;
+    public Player(float x, float y, float speed, String spriteName) {
+        super(x, y, speed, spriteName);
+        this.collisionRectangle = new CollisionRectangle(x - (texture.getRegionWidth() / 4f), y - (texture.getRegionHeight() / 4f), texture.getRegionWidth() / 2, texture.getRegionHeight() / 2);
+        this.playerRadius = texture.getRegionWidth() / 2f;
 
-        stepSound = Gdx.audio.newSound(Gdx.files.internal("footsteps-on-tile-31653.ogg"));
-        switchWeaponSound = Gdx.audio.newSound(Gdx.files.internal("weapon_switch.wav"));
-        bandageSound = Gdx.audio.newSound(Gdx.files.internal("bandageSound.wav"));
-        medkitSound = Gdx.audio.newSound(Gdx.files.internal("medkitSound.wav"));
+        stepSound = GameAssets.sound(GameAssets.FOOTSTEPS);
+        switchWeaponSound = GameAssets.sound(GameAssets.WEAPON_SWITCH);
+        bandageSound = GameAssets.sound(GameAssets.BANDAGE);
+        medkitSound = GameAssets.sound(GameAssets.MEDKIT);
 
         
         // initialize weapons
@@ -98,38 +95,30 @@ public class Player extends Character implements Disposable {
         
         // set default weapon (carbine)
         currentWeapon = weapons.get(1);
-        weaponTextures.put("Pistol", new Texture(Gdx.files.internal("player_sprite_pistol.png")));
-        weaponTextures.put("Carbine", new Texture(Gdx.files.internal("player_sprite_carbine.png")));
-        weaponTextures.put("Shotgun", new Texture(Gdx.files.internal("player_sprite_shotgun.png")));
+        weaponTextures.put("Pistol", Sprites.get("player_sprite_pistol"));
+        weaponTextures.put("Carbine", Sprites.get("player_sprite_carbine"));
+        weaponTextures.put("Shotgun", Sprites.get("player_sprite_shotgun"));
         this.texture = weaponTextures.get(currentWeapon.getName());
         
         
      // load pistol walk frames
         for (int i = 1; i <= 8; i++) {
-            pistolWalkFrames.add(new Texture(Gdx.files.internal("pistol" + i + "-1.png"))); // swapped for beige pistol walk frames
+            pistolWalkFrames.add(Sprites.get("pistol" + i + "-1")); // swapped for beige pistol walk frames
 
         }
 
-        shotgunWalkFrames.add(new Texture(Gdx.files.internal("shotgun11.png")));//adding new beige animation frames
-        shotgunWalkFrames.add(new Texture(Gdx.files.internal("shotgun22.png")));
-        shotgunWalkFrames.add(new Texture(Gdx.files.internal("shotgun33.png")));
-        shotgunWalkFrames.add(new Texture(Gdx.files.internal("shotgun44.png")));
+        shotgunWalkFrames.addAll(Sprites.frames("shotgun11", "shotgun22", "shotgun33", "shotgun44"));//adding new beige animation frames
 
         
      // random death frames for the player(modified to be beige)
-        Texture[] possibleDeathFrames = new Texture[] {
-            new Texture(Gdx.files.internal("playerdeath11.png")),
-            new Texture(Gdx.files.internal("playerdeath22.png")),
-            new Texture(Gdx.files.internal("playerdeath33.png"))
-        };
+        TextureRegion[] possibleDeathFrames = Sprites.frames("playerdeath11", "playerdeath22", "playerdeath33");
 
         // randomly select one as the death frame
         deathFrame = possibleDeathFrames[(int)(Math.random() * possibleDeathFrames.length)];
         
      // load custon carb walk(beige player now)
         for (int i = 0; i <= 7; i++) {
-            String filename = String.format("walk_frames_%d%d.png", i, i);
-            carbineWalkFrames.add(new Texture(Gdx.files.internal(filename)));
+            carbineWalkFrames.add(Sprites.get(String.format("walk_frames_%d%d", i, i)));
         }
 
 
@@ -138,7 +127,7 @@ public class Player extends Character implements Disposable {
 
     }
 
-    public void update(float delta, Array<Enemy> enemies, Array<CollisionRectangle> mapCollisions) {
+    public void update(float delta, InputFrame input, EnemyGrid enemies, CollisionGrid mapCollisions) {
         // Return early if player is dead, but first make sure sounds are stopped
         if (isDead || health <= 0) {
             // Safety check - stop any sounds that might be playing
@@ -166,43 +155,40 @@ public class Player extends Character implements Disposable {
         float proposedY;
 
         // check horizontal movement
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
+        if (input.moveLeft) {
             proposedX = x - moveAmount;
-            collisionRectangle.move(proposedX - texture.getWidth() / 4f, y - texture.getHeight() / 4f);
+            collisionRectangle.move(proposedX - texture.getRegionWidth() / 4f, y - texture.getRegionHeight() / 4f);
             if (!isCollidingWithMap(collisionRectangle, mapCollisions) && !isCollidingWithEnemies(proposedX, y, enemies)) {
                 x = proposedX;
             }
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.D)) {
+        if (input.moveRight) {
             proposedX = x + moveAmount;
-            collisionRectangle.move(proposedX - texture.getWidth() / 4f, y - texture.getHeight() / 4f);
+            collisionRectangle.move(proposedX - texture.getRegionWidth() / 4f, y - texture.getRegionHeight() / 4f);
             if (!isCollidingWithMap(collisionRectangle, mapCollisions) && !isCollidingWithEnemies(proposedX, y, enemies)) {
                 x = proposedX;
             }
         }
 
         // chck vertical movement
-        if (Gdx.input.isKeyPressed(Input.Keys.W)) {
+        if (input.moveUp) {
             proposedY = y + moveAmount;
-            collisionRectangle.move(x - texture.getWidth() / 4f, proposedY - texture.getHeight() / 4f);
+            collisionRectangle.move(x - texture.getRegionWidth() / 4f, proposedY - texture.getRegionHeight() / 4f);
             if (!isCollidingWithMap(collisionRectangle, mapCollisions) && !isCollidingWithEnemies(x, proposedY, enemies)) {
                 y = proposedY;
             }
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.S)) {
+        if (input.moveDown) {
             proposedY = y - moveAmount;
-            collisionRectangle.move(x - texture.getWidth() / 4f, proposedY - texture.getHeight() / 4f);
+            collisionRectangle.move(x - texture.getRegionWidth() / 4f, proposedY - texture.getRegionHeight() / 4f);
             if (!isCollidingWithMap(collisionRectangle, mapCollisions) && !isCollidingWithEnemies(x, proposedY, enemies)) {
                 y = proposedY;
             }
         }
 
-        // rotate to face mouse
-        float mouseX = Gdx.input.getX();
-        float mouseY = Gdx.input.getY();
-        Vector3 worldCoordinates = camera.unproject(new Vector3(mouseX, mouseY, 0));
-        float dx = worldCoordinates.x - x;
-        float dy = worldCoordinates.y - y;
+        // rotate to face the crosshair
+        float dx = input.aimX - x;
+        float dy = input.aimY - y;
 
         if (dx != 0 || dy != 0) {
         	rotation = (float) Math.toDegrees(Math.atan2(dy, dx));//changed for new sprites
@@ -211,14 +197,11 @@ public class Player extends Character implements Disposable {
 
         // rpdate collision rectangle position
         collisionRectangle.move(
-            x - (texture.getWidth() / 4f),
-            y - (texture.getHeight() / 4f)
+            x - (texture.getRegionWidth() / 4f),
+            y - (texture.getRegionHeight() / 4f)
         );
 
-        boolean anyKeyPressed = Gdx.input.isKeyPressed(Input.Keys.W) ||
-                                Gdx.input.isKeyPressed(Input.Keys.A) ||
-                                Gdx.input.isKeyPressed(Input.Keys.S) ||
-                                Gdx.input.isKeyPressed(Input.Keys.D);
+        boolean anyKeyPressed = input.isMoving();
         
      
      // update walk animation frame for new sprites
@@ -263,14 +246,14 @@ public class Player extends Character implements Disposable {
         }
         
         // Check for weapon switching
-        if (Gdx.input.isKeyJustPressed(Input.Keys.Q)) {
+        if (input.previousWeaponPressed) {
             switchToPreviousWeapon();
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.E)) {
+        } else if (input.nextWeaponPressed) {
             switchToNextWeapon();
         }
         
         // Handle reload input
-        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+        if (input.reloadPressed) {
             startReload();
         }
 
@@ -304,7 +287,7 @@ public class Player extends Character implements Disposable {
                 }
             }
             // Handle stopping bleed with F key
-            if (Gdx.input.isKeyPressed(Input.Keys.F)) {
+            if (input.healHeld) {
                 if (healSoundId == -1) {
                     healSoundId = bandageSound.loop(0.7f);
                 }
@@ -333,18 +316,14 @@ public class Player extends Character implements Disposable {
 
     @Override
     public void update(float delta) {
-        // Fallback for legacy compatibility, no enemy or map awareness
-        update(delta, new Array<Enemy>(), new Array<CollisionRectangle>());
+        // Fallback for legacy compatibility, no input, enemy or map awareness
+        update(delta, NO_INPUT, null, null);
     }
 
-    public void clampPosition(float worldWidth, float worldHeight, float screenWidth, float screenHeight) {
-        // Compute conversion factors based on the viewport's effective screen dimensions
-        float conversionFactorX = camera.viewportWidth / screenWidth;
-        float conversionFactorY = camera.viewportHeight / screenHeight;
-
-        // Calculate half the texture size in world units
-        float halfWidth = (texture.getWidth() / 2f) * conversionFactorX;
-        float halfHeight = (texture.getHeight() / 2f) * conversionFactorY;
+    public void clampPosition(float worldWidth, float worldHeight) {
+        // sprites are drawn one texel per world unit, so half the texture is half the sprite
+        float halfWidth = texture.getRegionWidth() / 2f;
+        float halfHeight = texture.getRegionHeight() / 2f;
 
         // Clamp the player's position within the world dimensions
         x = Math.max(halfWidth, Math.min(x, worldWidth - halfWidth));
@@ -363,25 +342,13 @@ public class Player extends Character implements Disposable {
         return collisionRectangle;
     }
 
-    private boolean isCollidingWithMap(CollisionRectangle playerRect, Array<CollisionRectangle> mapCollisions) {
-        for (CollisionRectangle rect : mapCollisions) {
-            if (playerRect.collisionCheck(rect)) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isCollidingWithMap(CollisionRectangle playerRect, CollisionGrid mapCollisions) {
+        return mapCollisions != null && mapCollisions.overlaps(playerRect);
     }
 
-    private boolean isCollidingWithEnemies(float proposedX, float proposedY, Array<Enemy> enemies) {
-
-        for (Enemy e : enemies) {
-            if (e.isDead()) continue; // Skip dead enemies
-            CollisionRectangle enemyRect = e.getCollisionRectangle();
-            if (collisionRectangle.collisionCheck(enemyRect)) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isCollidingWithEnemies(float proposedX, float proposedY, EnemyGrid enemies) {
+        // collisionRectangle has already been moved to the proposed position
+        return enemies != null && enemies.overlaps(collisionRectangle, null);
     }
 
     public float getHealth() {
@@ -400,46 +367,39 @@ public class Player extends Character implements Disposable {
         return "None";
     }
     
-    // method to fire the current weapon
-    public Bullet fireWeapon(float x, float y, float dirX, float dirY) {
-        if (isReloading) {
-            return null; // can't fire while reloading
-        }
-        
-        if (currentWeapon != null) {
-            return currentWeapon.fire(x, y, dirX, dirY, this);
-        }
-        return null;
+    // method to fire the current weapon into bullets, true if a shot went off
+    public boolean fireWeapon(BulletSystem bullets, float x, float y, float dirX, float dirY) {
+        return fireWeapon(bullets, x, y, dirX, dirY, 1.0f);
     }
     
     // method to fire the current weapon with spread multiplier
-    public Bullet fireWeapon(float x, float y, float dirX, float dirY, float spreadMultiplier) {
+    public boolean fireWeapon(BulletSystem bullets, float x, float y, float dirX, float dirY, float spreadMultiplier) {
         if (isReloading) {
-            return null; // can't fire while reloading
+            return false; // can't fire while reloading
         }
         
         if (currentWeapon != null) {
-            return currentWeapon.fire(x, y, dirX, dirY, this, spreadMultiplier);
+            return currentWeapon.fire(bullets, x, y, dirX, dirY, this, spreadMultiplier);
         }
-        return null;
+        return false;
     }
     
     // special method for shotgun - delegates to version with spread multiplier using default value
-    public Array<Bullet> fireShotgun(float x, float y, float dirX, float dirY) {
+    public boolean fireShotgun(BulletSystem bullets, float x, float y, float dirX, float dirY) {
         // Call the version with spread multiplier using default value of 1.0f
-        return fireShotgun(x, y, dirX, dirY, 1.0f);
+        return fireShotgun(bullets, x, y, dirX, dirY, 1.0f);
     }
 
     // Special method for shotgun with spread multiplier
-    public Array<Bullet> fireShotgun(float x, float y, float dirX, float dirY, float spreadMultiplier) {
+    public boolean fireShotgun(BulletSystem bullets, float x, float y, float dirX, float dirY, float spreadMultiplier) {
         if (isReloading) {
-            return null; // Can't fire while reloading
+            return false; // Can't fire while reloading
         }
         
         if (currentWeapon != null && currentWeapon instanceof Shotgun) {
-            return ((Shotgun) currentWeapon).fireShotgun(x, y, dirX, dirY, this, spreadMultiplier);
+            return ((Shotgun) currentWeapon).fireShotgun(bullets, x, y, dirX, dirY, this, spreadMultiplier);
         }
-        return null;
+        return false;
     }
 
     public void switchToNextWeapon() {
@@ -460,31 +420,8 @@ public class Player extends Character implements Disposable {
 
     @Override
     public void dispose() {
-        if (stepSound != null) {
-            stepSound.dispose();
-        }
-        if (switchWeaponSound != null) {
-            switchWeaponSound.dispose();
-        }
-        for (Texture tex : weaponTextures.values()) { 
-            tex.dispose();
-        }
-        
-        if (deathFrame != null) {
-            deathFrame.dispose();
-        }
-
-        if (bandageSound != null) {
-            bandageSound.dispose();
-        }
-
-        if (medkitSound != null) {
-            medkitSound.dispose();
-        }
-
-
-        
-        
+        // the sounds are shared through GameAssets, only silence the loops this player started
+        stopAllSounds();
         super.dispose();
     }
 
@@ -738,8 +675,9 @@ public class Player extends Character implements Disposable {
 
     
  // animated render method
-    public void render(SpriteBatch batch) {
-        Texture frame = texture;
+    @Override
+    public void render(SpriteBatch batch, float alpha) {
+        TextureRegion frame = texture;
 
         if (isDead) {
             frame = deathFrame;
@@ -763,32 +701,26 @@ public class Player extends Character implements Disposable {
 
         float drawWidth, drawHeight;
         if (isDead) { // adjusting death frame sprite because png is too big
-            drawWidth = frame.getWidth() * 0.7f;
-            drawHeight = frame.getHeight() * 0.7f;
+            drawWidth = frame.getRegionWidth() * 0.7f;
+            drawHeight = frame.getRegionHeight() * 0.7f;
         } else {
-            drawWidth = frame.getWidth();
-            drawHeight = frame.getHeight();
+            drawWidth = frame.getRegionWidth();
+            drawHeight = frame.getRegionHeight();
         }
 
         float renderRotation = rotation; // no correction needed anymore
 
         batch.draw(
             frame,
-            x - drawWidth / 2f,
-            y - drawHeight / 2f,
+            getRenderX(alpha) - drawWidth / 2f,
+            getRenderY(alpha) - drawHeight / 2f,
             drawWidth / 2f,
             drawHeight / 2f,
             drawWidth,
             drawHeight,
             1f,
             1f,
-            renderRotation,
-            0,
-            0,
-            frame.getWidth(),
-            frame.getHeight(),
-            false,
-            false
+            renderRotation
         );
     }
 
@@ -0,0 +1,129 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Draws a gameplay frame as a short, fixed list of layers. Entities, bullets, the reticle, the
+ * HUD and so on register a drawer for the layer they belong to once, and every frame each layer
+ * is drawn inside a single begin/end of its renderer. A frame then flushes the SpriteBatch and
+ * ShapeRenderer once per layer instead of once per subsystem.
+ *
+ * Layers are in draw order and neighbouring layers never share a renderer setup, so a layer
+ * can't be merged into the one before it. After {@link #render} the flush counts of the frame
+ * can be read back; the tiled map draws through its own renderer and isn't counted.
+ */
+public class RenderPass {
+
+    public enum Layer {
+        WORLD_SPRITES(false, null, false),     // characters, drops, bullets, grenades, explosions
+        WORLD_LINES(false, ShapeType.Line, false), // reticle, sound rings, map border
+        HUD_FILLED(true, ShapeType.Filled, true),
+        HUD_LINES(true, ShapeType.Line, false),
+        HUD_SPRITES(true, null, false),        // HUD icons and text, prompts
+        SCREEN_FADE(true, ShapeType.Filled, true),
+        SCREEN_OVERLAY(true, null, false);     // victory image, over everything
+
+        final boolean screenSpace; // pixel coordinates instead of the world camera
+        final ShapeType shapeType; // null for SpriteBatch layers
+        final boolean blend;
+
+        Layer(boolean screenSpace, ShapeType shapeType, boolean blend) {
+            this.screenSpace = screenSpace;
+            this.shapeType = shapeType;
+            this.blend = blend;
+        }
+    }
+
+    public interface SpriteDrawer {
+        void draw(SpriteBatch batch);
+    }
+
+    public interface ShapeDrawer {
+        void draw(ShapeRenderer shapes);
+    }
+
+    private static final Layer[] LAYERS = Layer.values();
+
+    private final SpriteBatch batch;
+    private final ShapeRenderer shapes;
+    private final Matrix4 screenProjection = new Matrix4();
+    private final Array<SpriteDrawer>[] spriteDrawers;
+    private final Array<ShapeDrawer>[] shapeDrawers;
+
+    private int spriteFlushes;
+    private int shapeFlushes;
+
+    @SuppressWarnings("unchecked")
+    public RenderPass(SpriteBatch batch, ShapeRenderer shapes) {
+        this.batch = batch;
+        this.shapes = shapes;
+        spriteDrawers = new Array[LAYERS.length];
+        shapeDrawers = new Array[LAYERS.length];
+        for (Layer layer : LAYERS) {
+            if (layer.shapeType == null) spriteDrawers[layer.ordinal()] = new Array<>();
+            else shapeDrawers[layer.ordinal()] = new Array<>();
+        }
+    }
+
+    // drawers of a layer run in the order they were added
+    public void addSprites(Layer layer, SpriteDrawer drawer) {
+        if (layer.shapeType != null) throw new IllegalArgumentException(layer + " is drawn with the ShapeRenderer");
+        spriteDrawers[layer.ordinal()].add(drawer);
+    }
+
+    public void addShapes(Layer layer, ShapeDrawer drawer) {
+        if (layer.shapeType == null) throw new IllegalArgumentException(layer + " is drawn with the SpriteBatch");
+        shapeDrawers[layer.ordinal()].add(drawer);
+    }
+
+    public void render(Matrix4 worldProjection) {
+        spriteFlushes = 0;
+        shapeFlushes = 0;
+        screenProjection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
+        for (Layer layer : LAYERS) {
+            Matrix4 projection = layer.screenSpace ? screenProjection : worldProjection;
+            if (layer.shapeType == null) {
+                Array<SpriteDrawer> drawers = spriteDrawers[layer.ordinal()];
+                if (drawers.size == 0) continue;
+                batch.setProjectionMatrix(projection);
+                batch.begin();
+                for (int i = 0; i < drawers.size; i++) {
+                    drawers.get(i).draw(batch);
+                }
+                batch.end();
+                // counts the extra flushes a texture switch (e.g. to a font page) causes
+                spriteFlushes += batch.renderCalls;
+            } else {
+                Array<ShapeDrawer> drawers = shapeDrawers[layer.ordinal()];
+                if (drawers.size == 0) continue;
+                if (layer.blend) Gdx.gl.glEnable(GL20.GL_BLEND);
+                shapes.setProjectionMatrix(projection);
+                shapes.begin(layer.shapeType);
+                for (int i = 0; i < drawers.size; i++) {
+                    drawers.get(i).draw(shapes);
+                }
+                // an idle layer (no fade going on, say) ends without a draw call
+                if (shapes.getRenderer().getNumVertices() > 0) shapeFlushes++;
+                shapes.end();
+                if (layer.blend) Gdx.gl.glDisable(GL20.GL_BLEND);
+            }
+        }
+    }
+
+    // SpriteBatch draw calls in the last frame
+    public int getSpriteFlushes() {
+        return spriteFlushes;
+    }
+
+    // ShapeRenderer draw calls in the last frame, not counting a layer overflowing its vertex buffer
+    public int getShapeFlushes() {
+        return shapeFlushes;
+    }
+}
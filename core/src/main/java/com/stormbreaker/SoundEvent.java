@@ -1,39 +1,69 @@
 package com.stormbreaker;
 
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
+import com.stormbreaker.tools.SoundField;
 
-public class SoundEvent {
+/**
+ * A sound enemies can hear: a ring growing from where it was made to its max radius over its
+ * duration. Events are pooled and handed out by {@link SoundEventBus}.
+ */
+public class SoundEvent implements Pool.Poolable {
     public enum Type {
         GUNSHOT, GRENADE, FOOTSTEP
     }
 
-    private final Vector2 position;
+    private final Vector2 position = new Vector2();
     private float currentRadius;
-    private final float maxRadius;
-    private final float duration; // seconds
+    private float maxRadius;
+    private float duration; // seconds
     private float elapsed; // seconds
-    private final Type type;
+    private Type type;
     private boolean expired;
+    // how far the sound got around walls, null when it travels in a straight line
+    private SoundField field;
 
-    public SoundEvent(Vector2 position, float maxRadius, float duration, Type type) {
-        this.position = new Vector2(position);
+    SoundEvent() {
+    }
+
+    void set(float x, float y, float maxRadius, float duration, Type type, SoundField field) {
+        this.position.set(x, y);
         this.currentRadius = 0f;
         this.maxRadius = maxRadius;
         this.duration = duration;
         this.elapsed = 0f;
         this.type = type;
         this.expired = false;
+        this.field = field;
+        if (field != null) field.start(x, y);
     }
 
     public void update(float delta) {
         elapsed += delta;
         float progress = Math.min(elapsed / duration, 1f);
         currentRadius = maxRadius * progress;
+        if (field != null) field.expand(currentRadius);
         if (elapsed >= duration) {
             expired = true;
         }
     }
 
+    // true once the ring has got to (x, y)
+    public boolean reaches(float x, float y) {
+        // going around walls is never shorter than the straight line
+        if (Vector2.dst2(x, y, position.x, position.y) > currentRadius * currentRadius) return false;
+        return field == null || field.reaches(x, y, currentRadius);
+    }
+
+    SoundField getField() { return field; }
+
+    @Override
+    public void reset() {
+        type = null;
+        expired = false;
+        field = null; // the bus takes it back for the next event
+    }
+
     public Vector2 getPosition() { return position; }
     public float getCurrentRadius() { return currentRadius; }
     public float getMaxRadius() { return maxRadius; }
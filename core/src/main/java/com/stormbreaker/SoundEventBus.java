@@ -0,0 +1,159 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.stormbreaker.tools.SoundField;
+import com.stormbreaker.tools.VisibilityGrid;
+
+/**
+ * The level's live {@link SoundEvent}s, pooled and bucketed by where they can be heard.
+ *
+ * An event is put in every grid bucket its max radius overlaps when it is emitted and taken
+ * out when it expires, so an enemy only tests the few events whose ring can ever reach its
+ * bucket instead of every sound in the level. Buckets keep emission order, which keeps
+ * {@link #firstHeardAt} picking the same event a scan of all events would.
+ *
+ * With walls given, each event also floods a {@link SoundField} as its ring grows and is only
+ * heard where it got to around walls; without them sound goes straight through. A field covers
+ * the whole map, so they are pooled separately from the events: an expired event gives its
+ * field back, and there are only ever as many fields as events alive at once.
+ *
+ * Positions outside the map are clamped to the edge buckets, like {@link EnemyGrid}.
+ * Emitting, updating and clearing happen on the render thread. {@link #firstHeardAt} only reads,
+ * so enemies may query it from several threads at once in between.
+ */
+public class SoundEventBus {
+    public static final float DEFAULT_CELL_SIZE = 128f;
+
+    private final float worldWidth;
+    private final float worldHeight;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final Array<SoundEvent>[] cells;
+    private final Array<SoundEvent> events = new Array<>(); // live events, oldest first
+    private final VisibilityGrid walls; // null when sound isn't occluded
+    private final Array<SoundField> spareFields = new Array<>(); // fields of expired events
+    private int fieldCount;
+
+    private final Pool<SoundEvent> pool = new Pool<SoundEvent>() {
+        @Override
+        protected SoundEvent newObject() {
+            return new SoundEvent();
+        }
+    };
+
+    public SoundEventBus(float worldWidth, float worldHeight, VisibilityGrid walls) {
+        this(worldWidth, worldHeight, walls, DEFAULT_CELL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SoundEventBus(float worldWidth, float worldHeight, VisibilityGrid walls, float cellSize) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.walls = walls;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.cells = new Array[columns * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Array<>(true, 4);
+        }
+    }
+
+    public void emit(float x, float y, float maxRadius, float duration, SoundEvent.Type type) {
+        SoundEvent event = pool.obtain();
+        SoundField field = null;
+        if (walls != null) {
+            if (spareFields.size > 0) {
+                field = spareFields.pop();
+            } else {
+                field = new SoundField(walls, worldWidth, worldHeight);
+                fieldCount++;
+            }
+        }
+        event.set(x, y, maxRadius, duration, type, field);
+        events.add(event);
+
+        int minX = column(x - maxRadius), maxX = column(x + maxRadius);
+        int minY = row(y - maxRadius), maxY = row(y + maxRadius);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                cells[cy * columns + cx].add(event);
+            }
+        }
+    }
+
+    // grows every ring and frees the events that are done
+    public void update(float delta) {
+        for (int i = 0; i < events.size; ) {
+            SoundEvent event = events.get(i);
+            event.update(delta);
+            if (event.isExpired()) {
+                events.removeIndex(i);
+                unbucket(event);
+                free(event);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * The oldest live event heard at (x, y), or null if none is.
+     */
+    public SoundEvent firstHeardAt(float x, float y) {
+        Array<SoundEvent> nearby = cells[row(y) * columns + column(x)];
+        for (int i = 0; i < nearby.size; i++) {
+            SoundEvent event = nearby.get(i);
+            if (event.reaches(x, y)) return event;
+        }
+        return null;
+    }
+
+    // live events in emission order, for drawing the rings
+    public Array<SoundEvent> getEvents() {
+        return events;
+    }
+
+    public void clear() {
+        for (Array<SoundEvent> cell : cells) {
+            cell.clear();
+        }
+        for (int i = 0; i < events.size; i++) {
+            free(events.get(i));
+        }
+        events.clear();
+    }
+
+    // number of SoundFields built so far, the most events that were alive at once with walls given
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    private void free(SoundEvent event) {
+        if (event.getField() != null) spareFields.add(event.getField());
+        pool.free(event);
+    }
+
+    private void unbucket(SoundEvent event) {
+        float x = event.getPosition().x;
+        float y = event.getPosition().y;
+        float maxRadius = event.getMaxRadius();
+        int minX = column(x - maxRadius), maxX = column(x + maxRadius);
+        int minY = row(y - maxRadius), maxY = row(y + maxRadius);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                cells[cy * columns + cx].removeValue(event, true);
+            }
+        }
+    }
+
+    private int column(float x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+}
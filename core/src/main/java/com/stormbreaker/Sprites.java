@@ -0,0 +1,64 @@
+package com.stormbreaker;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Shared source of every gameplay sprite: the player, enemies, bullets, grenades, pickups and
+ * HUD icons all come out of one texture atlas instead of loading their own textures.
+ *
+ * The atlas is packed at build time by the core {@code packSprites} task from the images in
+ * core/assets-raw/sprites, and a region is named after its image file without ".png". With
+ * everything on one page the SpriteBatch keeps a single texture bound for the whole scene, and
+ * a level load uploads that page once no matter how many enemies it spawns.
+ *
+ * The atlas comes from {@link GameAssets}, which normally has it loaded with the level. On
+ * first use this class adds a reference of its own, so the atlas and the regions handed out
+ * stay valid between levels until {@link #dispose()}. Regions are shared, so callers must never
+ * dispose their textures.
+ */
+public final class Sprites {
+    public static final String ATLAS_PATH = "sprites.atlas";
+
+    private static TextureAtlas atlas;
+    // findRegion walks every region, so remember the ones already looked up
+    private static final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+
+    private Sprites() {
+    }
+
+    public static TextureRegion get(String name) {
+        TextureRegion region = regions.get(name);
+        if (region == null) {
+            if (atlas == null) {
+                AssetManager assets = GameAssets.manager();
+                assets.load(ATLAS_PATH, TextureAtlas.class);
+                atlas = assets.finishLoadingAsset(ATLAS_PATH);
+            }
+            region = atlas.findRegion(name);
+            if (region == null) throw new GdxRuntimeException("No sprite named " + name + " in " + ATLAS_PATH);
+            regions.put(name, region);
+        }
+        return region;
+    }
+
+    // the regions for several images, in the given order (animation frames)
+    public static TextureRegion[] frames(String... names) {
+        TextureRegion[] frames = new TextureRegion[names.length];
+        for (int i = 0; i < names.length; i++) {
+            frames[i] = get(names[i]);
+        }
+        return frames;
+    }
+
+    public static void dispose() {
+        regions.clear();
+        if (atlas != null) {
+            GameAssets.manager().unload(ATLAS_PATH);
+            atlas = null;
+        }
+    }
+}
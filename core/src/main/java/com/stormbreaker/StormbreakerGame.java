@@ -17,6 +17,22 @@ public class StormbreakerGame extends Game {
         menuMusic.setLooping(true); 
         menuMusic.setVolume(1.0f); 
 
+        levelConfigs.addAll(createLevelConfigs());
+
+        setScreen(new SplashScreen(this));
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        Sprites.dispose(); // the sprite atlas is shared by every level
+        GameAssets.dispose();
+    }
+
+    // the shipped levels, in play order; static so headless runs can load them without a game
+    public static Array<LevelConfig> createLevelConfigs() {
+        Array<LevelConfig> levelConfigs = new Array<>();
+
         levelConfigs.add(new LevelConfig(
             "maps/test_map.tmx",
             new Vector2(100, 100), //spawn
@@ -37,7 +53,8 @@ public class StormbreakerGame extends Game {
                 new LevelConfig.EnemySpawn(800, 150, Enemy.EnemyType.AGGRESSIVE),
                 new LevelConfig.EnemySpawn(750, 50, Enemy.EnemyType.AGGRESSIVE),
 
-            })
+            }),
+            "victory_labyrinth.png"
         ));
 
         levelConfigs.add(new LevelConfig(
@@ -55,7 +72,8 @@ public class StormbreakerGame extends Game {
                 new LevelConfig.EnemySpawn(608, 96, Enemy.EnemyType.AGGRESSIVE),
 
              
-            })
+            }),
+            "victory_desert.png"
         ));
     
 
@@ -79,11 +97,11 @@ public class StormbreakerGame extends Game {
                 new LevelConfig.EnemySpawn(224, 608, Enemy.EnemyType.AGGRESSIVE), // (7,5)
 
                 
-            })
+            }),
+            "victory_house.png"
         ));
-    
 
-        setScreen(new SplashScreen(this));
+        return levelConfigs;
     }
 
     public String[] levelPaths = {
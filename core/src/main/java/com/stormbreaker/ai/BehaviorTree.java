@@ -0,0 +1,137 @@
+package com.stormbreaker.ai;
+
+/**
+ * A behaviour tree of agents of type T, built by {@link BehaviorTreeLoader} from a file.
+ *
+ * The whole tree runs from the root every tick and every node finishes within the tick, so a
+ * node just succeeds or fails; anything that lasts longer is kept by the agent itself. Leaves
+ * are the agent's own sensors and actions, the inner nodes are:
+ * - sequence: runs its children until one fails, succeeds if none did
+ * - selector: runs its children until one succeeds, fails if none did
+ * - all: runs every child whatever they return and succeeds
+ * - not: runs its child and flips the result
+ *
+ * A tree holds no per-agent state, so one tree is shared by every agent of a kind. Sensor
+ * results go in the agent's {@link TickMemo}, see there.
+ */
+public class BehaviorTree<T> {
+
+    // a node of the tree, memo belongs to the agent being ticked
+    abstract static class Node<T> {
+        abstract boolean tick(T agent, TickMemo memo);
+    }
+
+    private final Node<T> root;
+    private final String name;
+
+    BehaviorTree(Node<T> root, String name) {
+        this.root = root;
+        this.name = name;
+    }
+
+    /**
+     * Runs the tree once for the agent. Starts a new tick in the memo, so sensors are read
+     * again.
+     */
+    public boolean tick(T agent, TickMemo memo) {
+        memo.nextTick();
+        return root.tick(agent, memo);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    static class Sequence<T> extends Node<T> {
+        private final Node<T>[] children;
+
+        Sequence(Node<T>[] children) {
+            this.children = children;
+        }
+
+        @Override
+        boolean tick(T agent, TickMemo memo) {
+            for (Node<T> child : children) {
+                if (!child.tick(agent, memo)) return false;
+            }
+            return true;
+        }
+    }
+
+    static class Selector<T> extends Node<T> {
+        private final Node<T>[] children;
+
+        Selector(Node<T>[] children) {
+            this.children = children;
+        }
+
+        @Override
+        boolean tick(T agent, TickMemo memo) {
+            for (Node<T> child : children) {
+                if (child.tick(agent, memo)) return true;
+            }
+            return false;
+        }
+    }
+
+    static class All<T> extends Node<T> {
+        private final Node<T>[] children;
+
+        All(Node<T>[] children) {
+            this.children = children;
+        }
+
+        @Override
+        boolean tick(T agent, TickMemo memo) {
+            for (Node<T> child : children) {
+                child.tick(agent, memo);
+            }
+            return true;
+        }
+    }
+
+    static class Not<T> extends Node<T> {
+        private final Node<T> child;
+
+        Not(Node<T> child) {
+            this.child = child;
+        }
+
+        @Override
+        boolean tick(T agent, TickMemo memo) {
+            return !child.tick(agent, memo);
+        }
+    }
+
+    static class Action<T> extends Node<T> {
+        private final BehaviorTreeLoader.Leaf<T> leaf;
+
+        Action(BehaviorTreeLoader.Leaf<T> leaf) {
+            this.leaf = leaf;
+        }
+
+        @Override
+        boolean tick(T agent, TickMemo memo) {
+            return leaf.run(agent);
+        }
+    }
+
+    // a sensor, read at most once per tick however often the tree asks
+    static class Sensor<T> extends Node<T> {
+        private final BehaviorTreeLoader.Leaf<T> leaf;
+        private final int slot;
+
+        Sensor(BehaviorTreeLoader.Leaf<T> leaf, int slot) {
+            this.leaf = leaf;
+            this.slot = slot;
+        }
+
+        @Override
+        boolean tick(T agent, TickMemo memo) {
+            if (memo.has(slot)) return memo.get(slot);
+            boolean result = leaf.run(agent);
+            memo.put(slot, result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.stormbreaker.ai;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Builds {@link BehaviorTree}s from JSON files, with the leaves the agent registered by name.
+ *
+ * A leaf is written as its name, an inner node as an object with one field naming its kind:
+ * <pre>
+ * { "selector": [
+ *     { "sequence": ["seesPlayer", "charge"] },
+ *     { "not": "hearsSound" },
+ *     "relax"
+ * ] }
+ * </pre>
+ * Leaves registered with {@link #sensor} only look at the world and are memoised per tick,
+ * leaves registered with {@link #action} run every time the tree gets to them. An unknown
+ * name or node kind fails the load with the file in the message.
+ */
+public class BehaviorTreeLoader<T> {
+
+    public interface Leaf<T> {
+        boolean run(T agent);
+    }
+
+    private final ObjectMap<String, Leaf<T>> actions = new ObjectMap<>();
+    private final ObjectMap<String, Leaf<T>> sensors = new ObjectMap<>();
+    private final ObjectIntMap<String> sensorSlots = new ObjectIntMap<>();
+    private final JsonReader reader = new JsonReader();
+
+    public BehaviorTreeLoader<T> action(String name, Leaf<T> leaf) {
+        actions.put(name, leaf);
+        return this;
+    }
+
+    // every sensor gets its own memo slot, shared by all trees of this loader
+    public BehaviorTreeLoader<T> sensor(String name, Leaf<T> leaf) {
+        sensors.put(name, leaf);
+        sensorSlots.put(name, sensorSlots.size);
+        return this;
+    }
+
+    public BehaviorTree<T> load(FileHandle file) {
+        try {
+            return new BehaviorTree<>(build(reader.parse(file)), file.nameWithoutExtension());
+        } catch (RuntimeException e) {
+            throw new GdxRuntimeException("Couldn't load behaviour tree " + file.path() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private BehaviorTree.Node<T> build(JsonValue json) {
+        if (json.isString()) return leaf(json.asString());
+        if (!json.isObject() || json.child == null || json.child.next != null) {
+            throw new GdxRuntimeException("a node is a leaf name or an object with one field, got " + json);
+        }
+        JsonValue body = json.child;
+        switch (body.name) {
+            case "sequence": return new BehaviorTree.Sequence<>(children(body));
+            case "selector": return new BehaviorTree.Selector<>(children(body));
+            case "all": return new BehaviorTree.All<>(children(body));
+            case "not": return new BehaviorTree.Not<>(build(body));
+            default: throw new GdxRuntimeException("unknown node kind " + body.name);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private BehaviorTree.Node<T>[] children(JsonValue list) {
+        if (!list.isArray()) throw new GdxRuntimeException(list.name + " needs a list of children");
+        Array<BehaviorTree.Node<T>> nodes = new Array<>();
+        for (JsonValue child = list.child; child != null; child = child.next) {
+            nodes.add(build(child));
+        }
+        return nodes.toArray(BehaviorTree.Node.class);
+    }
+
+    private BehaviorTree.Node<T> leaf(String name) {
+        Leaf<T> sensor = sensors.get(name);
+        if (sensor != null) return new BehaviorTree.Sensor<>(sensor, sensorSlots.get(name, -1));
+        Leaf<T> action = actions.get(name);
+        if (action != null) return new BehaviorTree.Action<>(action);
+        throw new GdxRuntimeException("no sensor or action named " + name);
+    }
+}
@@ -0,0 +1,35 @@
+package com.stormbreaker.ai;
+
+/**
+ * One agent's sensor results for the current tick of its {@link BehaviorTree}.
+ *
+ * Each sensor of a loader has a slot. A result is kept with the tick it was read in, so
+ * starting a tick forgets them all without clearing anything.
+ */
+public class TickMemo {
+    private int tick = 1;
+    private int[] stamps = new int[8];
+    private boolean[] results = new boolean[8];
+
+    void nextTick() {
+        tick++;
+    }
+
+    boolean has(int slot) {
+        return slot < stamps.length && stamps[slot] == tick;
+    }
+
+    boolean get(int slot) {
+        return results[slot];
+    }
+
+    void put(int slot, boolean result) {
+        if (slot >= stamps.length) {
+            int capacity = Math.max(slot + 1, stamps.length * 2);
+            stamps = java.util.Arrays.copyOf(stamps, capacity);
+            results = java.util.Arrays.copyOf(results, capacity);
+        }
+        stamps[slot] = tick;
+        results[slot] = result;
+    }
+}
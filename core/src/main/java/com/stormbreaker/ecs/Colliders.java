@@ -0,0 +1,28 @@
+package com.stormbreaker.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Axis-aligned hitbox half-extents around the entity's {@link Transforms} position.
+ */
+public class Colliders extends ComponentArray {
+    public float[] halfWidth = new float[0];
+    public float[] halfHeight = new float[0];
+
+    public void set(int index, float halfW, float halfH) {
+        halfWidth[index] = halfW;
+        halfHeight[index] = halfH;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        halfWidth = Arrays.copyOf(halfWidth, capacity);
+        halfHeight = Arrays.copyOf(halfHeight, capacity);
+    }
+
+    @Override
+    protected void remove(int index, int size) {
+        shiftDown(halfWidth, index, size);
+        shiftDown(halfHeight, index, size);
+    }
+}
@@ -0,0 +1,28 @@
+package com.stormbreaker.ecs;
+
+/**
+ * One kind of component for every entity of an {@link EntityStore}, kept as plain arrays
+ * indexed by the entity's dense index rather than one object per entity.
+ *
+ * Subclasses hold public arrays that systems index directly. The store calls the hooks below
+ * as entities come and go, so every registered component always has the same length and
+ * order as the store. The arrays are replaced when they grow, so don't keep them across a
+ * create.
+ */
+public abstract class ComponentArray {
+
+    // makes room for capacity entities, keeping the values of the existing ones
+    protected abstract void resize(int capacity);
+
+    // drops the entity at index, moving the ones after it up to size down by one
+    protected abstract void remove(int index, int size);
+
+    // forgets the first size entities; arrays of objects null them so nothing is kept alive
+    protected void clear(int size) {
+    }
+
+    // moves index + 1 .. size - 1 of an array down by one
+    protected static void shiftDown(Object array, int index, int size) {
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+    }
+}
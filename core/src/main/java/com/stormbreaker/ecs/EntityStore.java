@@ -0,0 +1,103 @@
+package com.stormbreaker.ecs;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Entity ids and the dense slots their components live in.
+ *
+ * An entity is just an int id. Its components sit at the same index in every
+ * {@link ComponentArray} registered with the store, and the live entities fill indices 0 to
+ * size - 1 without gaps, so a system walks them as plain arrays instead of chasing objects.
+ * Destroying an entity moves the ones after it down by one, which keeps them in the order they
+ * were created in; that is the order their owner updates them in, and entities go away rarely
+ * enough for the shift not to matter. Ids of destroyed entities are handed out again.
+ *
+ * Creating and destroying happen on the render thread. In between, systems may read and write
+ * the components of different indices from several threads.
+ */
+public class EntityStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Array<ComponentArray> components = new Array<>();
+    private final IntArray freeIds = new IntArray();
+    private int[] indexOf = newIndexTable(INITIAL_CAPACITY); // by id, -1 if not alive
+    private int[] entityAt = new int[INITIAL_CAPACITY]; // by index
+    private int nextId;
+    private int size;
+
+    // adds a kind of component, sized for the entities there already are; returns it
+    public <C extends ComponentArray> C register(C component) {
+        component.resize(entityAt.length);
+        components.add(component);
+        return component;
+    }
+
+    // a new entity at the end of the dense order; its components are whatever resize left there
+    public int create() {
+        int id = freeIds.size > 0 ? freeIds.pop() : nextId++;
+        if (id >= indexOf.length) {
+            int[] grown = newIndexTable(indexOf.length * 2);
+            System.arraycopy(indexOf, 0, grown, 0, indexOf.length);
+            indexOf = grown;
+        }
+        if (size == entityAt.length) {
+            int capacity = size * 2;
+            entityAt = Arrays.copyOf(entityAt, capacity);
+            for (int i = 0; i < components.size; i++) {
+                components.get(i).resize(capacity);
+            }
+        }
+        indexOf[id] = size;
+        entityAt[size] = id;
+        size++;
+        return id;
+    }
+
+    public void destroy(int id) {
+        int index = indexOf(id);
+        if (index < 0) return;
+        for (int i = 0; i < components.size; i++) {
+            components.get(i).remove(index, size);
+        }
+        System.arraycopy(entityAt, index + 1, entityAt, index, size - index - 1);
+        size--;
+        for (int i = index; i < size; i++) {
+            indexOf[entityAt[i]] = i;
+        }
+        indexOf[id] = -1;
+        freeIds.add(id);
+    }
+
+    // dense index of the entity, -1 if it was destroyed
+    public int indexOf(int id) {
+        return id >= 0 && id < indexOf.length ? indexOf[id] : -1;
+    }
+
+    public int entityAt(int index) {
+        return entityAt[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // destroys every entity at once, ids start over
+    public void clear() {
+        for (int i = 0; i < components.size; i++) {
+            components.get(i).clear(size);
+        }
+        Arrays.fill(indexOf, -1);
+        freeIds.clear();
+        nextId = 0;
+        size = 0;
+    }
+
+    private static int[] newIndexTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+        return table;
+    }
+}
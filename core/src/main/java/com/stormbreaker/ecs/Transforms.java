@@ -0,0 +1,48 @@
+package com.stormbreaker.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Position and facing, with the position at the start of the tick for drawing between ticks.
+ * Rotation is in degrees.
+ */
+public class Transforms extends ComponentArray {
+    public float[] x = new float[0];
+    public float[] y = new float[0];
+    public float[] previousX = new float[0];
+    public float[] previousY = new float[0];
+    public float[] rotation = new float[0];
+
+    // puts a new entity at (px, py) with nothing to interpolate from
+    public void set(int index, float px, float py, float degrees) {
+        x[index] = px;
+        y[index] = py;
+        previousX[index] = px;
+        previousY[index] = py;
+        rotation[index] = degrees;
+    }
+
+    // called before each tick for the first size entities, so rendering can blend between ticks
+    public void savePrevious(int size) {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+    }
+
+    @Override
+    protected void remove(int index, int size) {
+        shiftDown(x, index, size);
+        shiftDown(y, index, size);
+        shiftDown(previousX, index, size);
+        shiftDown(previousY, index, size);
+        shiftDown(rotation, index, size);
+    }
+}
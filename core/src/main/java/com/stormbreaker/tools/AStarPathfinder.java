@@ -1,49 +1,108 @@
 package com.stormbreaker.tools;
 
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.PriorityQueue;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 
+/**
+ * Grid A* over an 8-connected walkable grid.
+ *
+ * All per-search state lives in flat primitive arrays indexed by {@code y * gridWidth + x}
+ * and is reused between calls. Instead of clearing the arrays before every search, each
+ * cell carries a generation stamp: a cell whose stamp differs from the current search id
+ * is treated as unvisited. The open set is an indexed binary min-heap keyed on f, which
+ * gives O(log n) insert, pop and decrease-key without ever allocating a node.
+ *
+ * In {@link SearchMode#JUMP_POINT} mode the same heap drives a Jump Point Search: straight
+ * and diagonal runs across open floor are skipped in a single jump and only cells with forced
+ * neighbours are pushed, so open maps expand a small fraction of the cells. Paths have the
+ * same cost as plain A* and are expanded back to one waypoint per cell.
+ *
+ * {@link SearchMode#HIERARCHICAL} hands queries to a {@link HierarchicalPathfinder} built
+ * over this grid, which keeps replans cheap on large maps at the price of near-optimal paths.
+ *
+ * Instances are not thread-safe; use one pathfinder per thread.
+ */
 public class AStarPathfinder {
+    static final float STRAIGHT_COST = 1f;
+    static final float DIAGONAL_COST = 1.414f;
+
+    public enum SearchMode {
+        ASTAR,
+        JUMP_POINT,
+        HIERARCHICAL
+    }
+
     private final int gridWidth;
     private final int gridHeight;
     private final float cellSize;
-    private final boolean[][] walkable;
+    private final boolean[] walkable;
     private final float buffer;
 
-    public static class Node {
-        public int x, y;
-        public Node parent;
-        public float g, h, f;
-        public Node(int x, int y) {
-            this.x = x;
-            this.y = y;
-        }
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Node node = (Node) o;
-            return x == node.x && y == node.y;
-        }
-        @Override
-        public int hashCode() {
-            return Objects.hash(x, y);
-        }
-    }
+    // per-search scratch, indexed by cell
+    private final float[] gScore;
+    private final float[] fScore;
+    private final int[] parent;
+    private final int[] openStamp;   // == searchId while the cell is (or was) in the open set this search
+    private final int[] closedStamp; // == searchId once the cell has been expanded this search
+    private final IndexedMinHeap open; // cell indices ordered by fScore
+
+    // cell rectangle search() may expand into, the whole grid unless a windowed search is running
+    private int windowMinX;
+    private int windowMinY;
+    private int windowMaxX;
+    private int windowMaxY;
+
+    private int searchId;
+    private int lastExpandedCount;
+    private SearchMode searchMode = SearchMode.ASTAR;
+    private HierarchicalPathfinder hierarchy; // built the first time HIERARCHICAL is selected
 
     public AStarPathfinder(float mapWidth, float mapHeight, float cellSize, Array<CollisionRectangle> obstacles, float buffer) {
-        this.gridWidth = (int) Math.ceil(mapWidth / cellSize);
-        this.gridHeight = (int) Math.ceil(mapHeight / cellSize);
+        this(cellsAcross(mapWidth, cellSize), cellsAcross(mapHeight, cellSize), cellSize, buffer,
+            markWalkable(cellsAcross(mapWidth, cellSize), cellsAcross(mapHeight, cellSize), cellSize, obstacles, buffer));
+    }
+
+    /**
+     * Second search context over the same grid: the walkable cells and the HPA* cluster graph are
+     * shared (they never change after construction), the scratch arrays are new, so the copy can
+     * run on another thread.
+     */
+    public AStarPathfinder(AStarPathfinder shared) {
+        this(shared.gridWidth, shared.gridHeight, shared.cellSize, shared.buffer, shared.walkable);
+        if (shared.hierarchy != null) hierarchy = new HierarchicalPathfinder(shared.hierarchy, this);
+        setSearchMode(shared.searchMode);
+    }
+
+    private AStarPathfinder(int gridWidth, int gridHeight, float cellSize, float buffer, boolean[] walkable) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
         this.cellSize = cellSize;
         this.buffer = buffer;
-        this.walkable = new boolean[gridWidth][gridHeight];
-        for (int x = 0; x < gridWidth; x++) {
-            for (int y = 0; y < gridHeight; y++) {
+        this.walkable = walkable;
+
+        int cellCount = gridWidth * gridHeight;
+        this.gScore = new float[cellCount];
+        this.fScore = new float[cellCount];
+        this.parent = new int[cellCount];
+        this.openStamp = new int[cellCount];
+        this.closedStamp = new int[cellCount];
+        this.open = new IndexedMinHeap(cellCount, fScore);
+        resetWindow();
+    }
+
+    private static int cellsAcross(float length, float cellSize) {
+        return (int) Math.ceil(length / cellSize);
+    }
+
+    // a cell is walkable unless its centre lies in an obstacle inflated by buffer
+    private static boolean[] markWalkable(int gridWidth, int gridHeight, float cellSize, Array<CollisionRectangle> obstacles, float buffer) {
+        boolean[] walkable = new boolean[gridWidth * gridHeight];
+        for (int y = 0; y < gridHeight; y++) {
+            for (int x = 0; x < gridWidth; x++) {
                 float worldX = x * cellSize + cellSize / 2f;
                 float worldY = y * cellSize + cellSize / 2f;
                 boolean blocked = false;
@@ -59,9 +118,38 @@ public class AStarPathfinder {
                         break;
                     }
                 }
-                walkable[x][y] = !blocked;
+                walkable[y * gridWidth + x] = !blocked;
             }
         }
+        return walkable;
+    }
+
+    // walkable grid and the settings it was built with, in the layout read() expects
+    void write(DataOutputStream out) throws IOException {
+        out.writeFloat(cellSize);
+        out.writeFloat(buffer);
+        out.writeInt(gridWidth);
+        out.writeInt(gridHeight);
+        for (boolean cell : walkable) {
+            out.writeByte(cell ? 1 : 0);
+        }
+    }
+
+    // a pathfinder over a grid saved by write(), or null if it was built for other settings
+    static AStarPathfinder read(ByteBuffer in, float mapWidth, float mapHeight, float cellSize, float buffer) {
+        float savedCellSize = in.getFloat();
+        float savedBuffer = in.getFloat();
+        int width = in.getInt();
+        int height = in.getInt();
+        if (savedCellSize != cellSize || savedBuffer != buffer
+            || width != cellsAcross(mapWidth, cellSize) || height != cellsAcross(mapHeight, cellSize)) {
+            return null;
+        }
+        boolean[] walkable = new boolean[width * height];
+        for (int i = 0; i < walkable.length; i++) {
+            walkable[i] = in.get() != 0;
+        }
+        return new AStarPathfinder(width, height, cellSize, buffer, walkable);
     }
 
     // Keep the old constructor for backward compatibility
@@ -70,69 +158,354 @@ public class AStarPathfinder {
     }
 
     public Array<Vector2> findPath(Vector2 start, Vector2 end) {
-        Node startNode = toNode(start);
-        Node endNode = toNode(end);
-        if (!isWalkable(endNode.x, endNode.y)) return null;
-        PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingDouble(n -> n.f));
-        HashSet<Node> closed = new HashSet<>();
-        startNode.g = 0;
-        startNode.h = heuristic(startNode, endNode);
-        startNode.f = startNode.h;
-        open.add(startNode);
+        int startX = toCellX(start.x);
+        int startY = toCellY(start.y);
+        int endX = toCellX(end.x);
+        int endY = toCellY(end.y);
+        if (!isWalkable(endX, endY)) return null;
+        if (!inBounds(startX, startY)) return null;
+
+        int startCell = startY * gridWidth + startX;
+        int endCell = endY * gridWidth + endX;
+        switch (searchMode) {
+            case HIERARCHICAL:
+                return hierarchy.findPath(startCell, endCell);
+            case JUMP_POINT:
+                return findPathCells(startCell, endCell);
+            default:
+                int goal = search(startCell, endCell);
+                return goal < 0 ? null : reconstructPath(goal);
+        }
+    }
+
+    // full-grid JPS between two cell indices, the hierarchy falls back to this
+    Array<Vector2> findPathCells(int startCell, int endCell) {
+        int goal = searchJumpPoints(startCell, endCell);
+        if (goal < 0) return null; // No path found
+        return reconstructPath(goal);
+    }
+
+    // plain A* that never leaves the cell rectangle [minX, maxX] x [minY, maxY]
+    Array<Vector2> findPathWithin(int startCell, int endCell, int minX, int minY, int maxX, int maxY) {
+        setWindow(minX, minY, maxX, maxY);
+        int goal = search(startCell, endCell);
+        resetWindow();
+        return goal < 0 ? null : reconstructPath(goal);
+    }
+
+    // Dijkstra from source over the cell rectangle; read the results back with settledCost()
+    void floodWithin(int source, int minX, int minY, int maxX, int maxY) {
+        setWindow(minX, minY, maxX, maxY);
+        search(source, -1);
+        resetWindow();
+    }
+
+    // cost to reach cell in the last floodWithin(), or -1 if it was not reached
+    float settledCost(int cell) {
+        return closedStamp[cell] == searchId ? gScore[cell] : -1f;
+    }
+
+    // previous cell on the best path to cell found by the last search or flood
+    int parentOf(int cell) {
+        return parent[cell];
+    }
+
+    // runs A* from start to goal (cell indices) and returns goal if it was reached, -1 otherwise.
+    // A negative goal floods every reachable cell instead (no heuristic, never returns early).
+    private int search(int start, int goal) {
+        beginSearch();
+        boolean flood = goal < 0;
+        int goalX = flood ? 0 : goal % gridWidth;
+        int goalY = flood ? 0 : goal / gridWidth;
+
+        gScore[start] = 0f;
+        parent[start] = -1;
+        openStamp[start] = searchId;
+        fScore[start] = flood ? 0f : heuristic(start % gridWidth, start / gridWidth, goalX, goalY);
+        open.push(start);
+
+        int expanded = 0;
         while (!open.isEmpty()) {
-            Node current = open.poll();
-            if (current.equals(endNode)) {
-                return reconstructPath(current);
+            int current = open.pop();
+            if (current == goal) {
+                lastExpandedCount = expanded;
+                return goal;
             }
-            closed.add(current);
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dy = -1; dy <= 1; dy++) {
+            closedStamp[current] = searchId;
+            expanded++;
+
+            int cx = current % gridWidth;
+            int cy = current / gridWidth;
+            float currentG = gScore[current];
+            for (int dy = -1; dy <= 1; dy++) {
+                int ny = cy + dy;
+                if (ny < windowMinY || ny > windowMaxY) continue;
+                for (int dx = -1; dx <= 1; dx++) {
                     if (dx == 0 && dy == 0) continue;
-                    int nx = current.x + dx;
-                    int ny = current.y + dy;
-                    if (!isWalkable(nx, ny)) continue;
-                    Node neighbor = new Node(nx, ny);
-                    if (closed.contains(neighbor)) continue;
-                    float tentativeG = current.g + ((dx == 0 || dy == 0) ? 1f : 1.414f);
-                    boolean inOpen = open.contains(neighbor);
-                    if (!inOpen || tentativeG < neighbor.g) {
-                        neighbor.parent = current;
-                        neighbor.g = tentativeG;
-                        neighbor.h = heuristic(neighbor, endNode);
-                        neighbor.f = neighbor.g + neighbor.h;
-                        if (!inOpen) open.add(neighbor);
+                    int nx = cx + dx;
+                    if (nx < windowMinX || nx > windowMaxX) continue;
+                    int neighbor = ny * gridWidth + nx;
+                    if (!walkable[neighbor] || closedStamp[neighbor] == searchId) continue;
+
+                    float tentativeG = currentG + ((dx == 0 || dy == 0) ? STRAIGHT_COST : DIAGONAL_COST);
+                    boolean inOpen = openStamp[neighbor] == searchId;
+                    if (!inOpen || tentativeG < gScore[neighbor]) {
+                        parent[neighbor] = current;
+                        gScore[neighbor] = tentativeG;
+                        fScore[neighbor] = flood ? tentativeG : tentativeG + heuristic(nx, ny, goalX, goalY);
+                        if (inOpen) {
+                            open.decreaseKey(neighbor);
+                        } else {
+                            openStamp[neighbor] = searchId;
+                            open.push(neighbor);
+                        }
+                    }
+                }
+            }
+        }
+        lastExpandedCount = expanded;
+        return -1;
+    }
+
+    // Jump Point Search from start to goal (cell indices), returns goal if reached, -1 otherwise.
+    // Diagonal steps may cut corners, exactly like the neighbour loop in search().
+    private int searchJumpPoints(int start, int goal) {
+        beginSearch();
+        int goalX = goal % gridWidth;
+        int goalY = goal / gridWidth;
+
+        gScore[start] = 0f;
+        parent[start] = -1;
+        openStamp[start] = searchId;
+        fScore[start] = heuristic(start % gridWidth, start / gridWidth, goalX, goalY);
+        open.push(start);
+
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            if (current == goal) {
+                lastExpandedCount = expanded;
+                return goal;
+            }
+            closedStamp[current] = searchId;
+            expanded++;
+
+            int cx = current % gridWidth;
+            int cy = current / gridWidth;
+            int from = parent[current];
+            if (from == -1) {
+                // no parent yet, every direction is a candidate
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if (dx != 0 || dy != 0) jumpSuccessor(current, cx, cy, dx, dy, goalX, goalY);
                     }
                 }
+                continue;
+            }
+
+            int dx = Integer.signum(cx - from % gridWidth);
+            int dy = Integer.signum(cy - from / gridWidth);
+            if (dx != 0 && dy != 0) {
+                jumpSuccessor(current, cx, cy, 0, dy, goalX, goalY);
+                jumpSuccessor(current, cx, cy, dx, 0, goalX, goalY);
+                jumpSuccessor(current, cx, cy, dx, dy, goalX, goalY);
+                if (!isWalkable(cx - dx, cy)) jumpSuccessor(current, cx, cy, -dx, dy, goalX, goalY);
+                if (!isWalkable(cx, cy - dy)) jumpSuccessor(current, cx, cy, dx, -dy, goalX, goalY);
+            } else if (dx != 0) {
+                jumpSuccessor(current, cx, cy, dx, 0, goalX, goalY);
+                if (!isWalkable(cx, cy + 1)) jumpSuccessor(current, cx, cy, dx, 1, goalX, goalY);
+                if (!isWalkable(cx, cy - 1)) jumpSuccessor(current, cx, cy, dx, -1, goalX, goalY);
+            } else {
+                jumpSuccessor(current, cx, cy, 0, dy, goalX, goalY);
+                if (!isWalkable(cx + 1, cy)) jumpSuccessor(current, cx, cy, 1, dy, goalX, goalY);
+                if (!isWalkable(cx - 1, cy)) jumpSuccessor(current, cx, cy, -1, dy, goalX, goalY);
+            }
+        }
+        lastExpandedCount = expanded;
+        return -1;
+    }
+
+    // jumps from (cx, cy) in direction (dx, dy) and relaxes the jump point it lands on, if any
+    private void jumpSuccessor(int current, int cx, int cy, int dx, int dy, int goalX, int goalY) {
+        int jumpPoint = jump(cx + dx, cy + dy, dx, dy, goalX, goalY);
+        if (jumpPoint < 0 || closedStamp[jumpPoint] == searchId) return;
+
+        int jx = jumpPoint % gridWidth;
+        int jy = jumpPoint / gridWidth;
+        float tentativeG = gScore[current] + heuristic(cx, cy, jx, jy);
+        boolean inOpen = openStamp[jumpPoint] == searchId;
+        if (!inOpen || tentativeG < gScore[jumpPoint]) {
+            parent[jumpPoint] = current;
+            gScore[jumpPoint] = tentativeG;
+            fScore[jumpPoint] = tentativeG + heuristic(jx, jy, goalX, goalY);
+            if (inOpen) {
+                open.decreaseKey(jumpPoint);
+            } else {
+                openStamp[jumpPoint] = searchId;
+                open.push(jumpPoint);
             }
         }
-        return null; // No path found
     }
 
-    private Array<Vector2> reconstructPath(Node node) {
+    // walks from (x, y) in direction (dx, dy) until it hits a wall (-1), the goal, or a cell with a forced neighbour
+    private int jump(int x, int y, int dx, int dy, int goalX, int goalY) {
+        while (true) {
+            if (!isWalkable(x, y)) return -1;
+            if (x == goalX && y == goalY) return y * gridWidth + x;
+
+            if (dx != 0 && dy != 0) {
+                if ((isWalkable(x - dx, y + dy) && !isWalkable(x - dx, y)) ||
+                    (isWalkable(x + dx, y - dy) && !isWalkable(x, y - dy))) {
+                    return y * gridWidth + x;
+                }
+                // a diagonal step is a jump point if either straight run leaving it finds one
+                if (jumpStraight(x + dx, y, dx, 0, goalX, goalY) || jumpStraight(x, y + dy, 0, dy, goalX, goalY)) {
+                    return y * gridWidth + x;
+                }
+            } else if (dx != 0) {
+                if ((isWalkable(x + dx, y + 1) && !isWalkable(x, y + 1)) ||
+                    (isWalkable(x + dx, y - 1) && !isWalkable(x, y - 1))) {
+                    return y * gridWidth + x;
+                }
+            } else {
+                if ((isWalkable(x + 1, y + dy) && !isWalkable(x + 1, y)) ||
+                    (isWalkable(x - 1, y + dy) && !isWalkable(x - 1, y))) {
+                    return y * gridWidth + x;
+                }
+            }
+            x += dx;
+            y += dy;
+        }
+    }
+
+    // straight-only variant of jump() that just reports whether a jump point exists
+    private boolean jumpStraight(int x, int y, int dx, int dy, int goalX, int goalY) {
+        while (true) {
+            if (!isWalkable(x, y)) return false;
+            if (x == goalX && y == goalY) return true;
+            if (dx != 0) {
+                if ((isWalkable(x + dx, y + 1) && !isWalkable(x, y + 1)) ||
+                    (isWalkable(x + dx, y - 1) && !isWalkable(x, y - 1))) {
+                    return true;
+                }
+            } else {
+                if ((isWalkable(x + 1, y + dy) && !isWalkable(x + 1, y)) ||
+                    (isWalkable(x - 1, y + dy) && !isWalkable(x - 1, y))) {
+                    return true;
+                }
+            }
+            x += dx;
+            y += dy;
+        }
+    }
+
+    private void beginSearch() {
+        open.clear();
+        searchId++;
+        if (searchId == Integer.MAX_VALUE) {
+            // stamps are about to wrap, wipe them once so stale cells can't alias the new id
+            java.util.Arrays.fill(openStamp, 0);
+            java.util.Arrays.fill(closedStamp, 0);
+            searchId = 1;
+        }
+    }
+
+    // walks the parent chain back from goal; jump point parents are several cells apart in a
+    // straight or diagonal line, so the gaps are filled in to keep one waypoint per cell
+    private Array<Vector2> reconstructPath(int goal) {
         Array<Vector2> path = new Array<>();
-        while (node != null) {
-            path.add(toWorld(node));
-            node = node.parent;
+        path.add(toWorld(goal));
+        for (int cell = goal; parent[cell] != -1; cell = parent[cell]) {
+            int x = cell % gridWidth;
+            int y = cell / gridWidth;
+            int px = parent[cell] % gridWidth;
+            int py = parent[cell] / gridWidth;
+            int stepX = Integer.signum(px - x);
+            int stepY = Integer.signum(py - y);
+            while (x != px || y != py) {
+                if (x != px) x += stepX;
+                if (y != py) y += stepY;
+                path.add(toWorld(y * gridWidth + x));
+            }
         }
         path.reverse();
         return path;
     }
 
-    private float heuristic(Node a, Node b) {
-        return Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+    // octile distance, admissible for the 1 / 1.414 step costs so the returned path is the cheapest one
+    static float heuristic(int ax, int ay, int bx, int by) {
+        int dx = Math.abs(ax - bx);
+        int dy = Math.abs(ay - by);
+        return STRAIGHT_COST * (dx + dy) + (DIAGONAL_COST - 2 * STRAIGHT_COST) * Math.min(dx, dy);
+    }
+
+    // --- grid helpers ---
+
+    private void setWindow(int minX, int minY, int maxX, int maxY) {
+        windowMinX = Math.max(minX, 0);
+        windowMinY = Math.max(minY, 0);
+        windowMaxX = Math.min(maxX, gridWidth - 1);
+        windowMaxY = Math.min(maxY, gridHeight - 1);
+    }
+
+    private void resetWindow() {
+        setWindow(0, 0, gridWidth - 1, gridHeight - 1);
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < gridWidth && y < gridHeight;
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return inBounds(x, y) && walkable[y * gridWidth + x];
+    }
+
+    public int toCellX(float worldX) {
+        return (int) (worldX / cellSize);
+    }
+
+    public int toCellY(float worldY) {
+        return (int) (worldY / cellSize);
     }
 
-    private boolean isWalkable(int x, int y) {
-        return x >= 0 && y >= 0 && x < gridWidth && y < gridHeight && walkable[x][y];
+    private Vector2 toWorld(int cell) {
+        return new Vector2((cell % gridWidth) * cellSize + cellSize / 2f, (cell / gridWidth) * cellSize + cellSize / 2f);
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public float getBuffer() {
+        return buffer;
+    }
+
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    // selecting HIERARCHICAL builds the cluster graph on first use, so do it at level load
+    public void setSearchMode(SearchMode searchMode) {
+        if (searchMode == SearchMode.HIERARCHICAL && hierarchy == null) {
+            hierarchy = new HierarchicalPathfinder(this, HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE);
+        }
+        this.searchMode = searchMode;
     }
 
-    private Node toNode(Vector2 pos) {
-        int x = (int) (pos.x / cellSize);
-        int y = (int) (pos.y / cellSize);
-        return new Node(x, y);
+    HierarchicalPathfinder getHierarchy() {
+        return hierarchy;
     }
 
-    private Vector2 toWorld(Node node) {
-        return new Vector2(node.x * cellSize + cellSize / 2f, node.y * cellSize + cellSize / 2f);
+    // number of cells expanded by the most recent search, handy for profiling
+    public int getLastExpandedCount() {
+        return lastExpandedCount;
     }
 }
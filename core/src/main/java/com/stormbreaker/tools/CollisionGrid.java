@@ -0,0 +1,384 @@
+package com.stormbreaker.tools;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Static broadphase for the map's collision rectangles.
+ *
+ * The area covered by the map (and by any rectangle hanging off its edge) is cut into square
+ * buckets, and each rectangle is listed in every bucket it touches, edges included. Queries
+ * only run the exact test against the rectangles listed in the buckets they touch, so their
+ * cost follows the local obstacle density rather than the total obstacle count. The exact
+ * tests are the same ones the game used against the full list, so results don't change.
+ *
+ * Built by {@link MapManager} when a level loads, or read back from {@link LevelDataCache};
+ * the rectangles must not move afterwards.
+ * Queries share a scratch stamp array, so use it from the render thread only.
+ */
+public class CollisionGrid {
+    public static final float DEFAULT_CELL_SIZE = 64f;
+
+    private final Array<CollisionRectangle> rectangles;
+    private final Rectangle[] bounds; // same rectangles as libGDX Rectangles for Intersector
+    private final float cellSize;
+    private final float originX;
+    private final float originY;
+    private final float maxX;
+    private final float maxY;
+    private final int columns;
+    private final int rows;
+
+    // rectangle indices per bucket: cellItems[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cellItems;
+
+    // per-rectangle stamp so a query tests each rectangle once even if it spans several buckets
+    private final int[] testedStamp;
+    private int queryId;
+
+    public CollisionGrid(Array<CollisionRectangle> rectangles, float mapWidth, float mapHeight) {
+        this(rectangles, mapWidth, mapHeight, DEFAULT_CELL_SIZE);
+    }
+
+    public CollisionGrid(Array<CollisionRectangle> rectangles, float mapWidth, float mapHeight, float cellSize) {
+        this.rectangles = rectangles;
+        this.cellSize = cellSize;
+
+        float minX = 0f, minY = 0f, maxX = mapWidth, maxY = mapHeight;
+        for (CollisionRectangle rect : rectangles) {
+            minX = Math.min(minX, rect.getX());
+            minY = Math.min(minY, rect.getY());
+            maxX = Math.max(maxX, rect.getX() + rect.getWidth());
+            maxY = Math.max(maxY, rect.getY() + rect.getHeight());
+        }
+        this.originX = minX;
+        this.originY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.columns = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+
+        this.bounds = new Rectangle[rectangles.size];
+        this.testedStamp = new int[rectangles.size];
+
+        // count, prefix-sum, fill
+        this.cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < rectangles.size; i++) {
+            CollisionRectangle rect = rectangles.get(i);
+            bounds[i] = new Rectangle(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight());
+            for (int cy = row(rect.getY()); cy <= row(rect.getY() + rect.getHeight()); cy++) {
+                for (int cx = column(rect.getX()); cx <= column(rect.getX() + rect.getWidth()); cx++) {
+                    cellStart[cy * columns + cx + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.cellItems = new int[cellStart[columns * rows]];
+        int[] fill = new int[columns * rows];
+        for (int i = 0; i < rectangles.size; i++) {
+            CollisionRectangle rect = rectangles.get(i);
+            for (int cy = row(rect.getY()); cy <= row(rect.getY() + rect.getHeight()); cy++) {
+                for (int cx = column(rect.getX()); cx <= column(rect.getX() + rect.getWidth()); cx++) {
+                    int c = cy * columns + cx;
+                    cellItems[cellStart[c] + fill[c]++] = i;
+                }
+            }
+        }
+    }
+
+    // a grid over buckets that were already filled, see read()
+    private CollisionGrid(Array<CollisionRectangle> rectangles, float cellSize, float originX, float originY,
+                          float maxX, float maxY, int columns, int rows, int[] cellStart, int[] cellItems) {
+        this.rectangles = rectangles;
+        this.cellSize = cellSize;
+        this.originX = originX;
+        this.originY = originY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.columns = columns;
+        this.rows = rows;
+        this.cellStart = cellStart;
+        this.cellItems = cellItems;
+        this.bounds = new Rectangle[rectangles.size];
+        this.testedStamp = new int[rectangles.size];
+        for (int i = 0; i < rectangles.size; i++) {
+            CollisionRectangle rect = rectangles.get(i);
+            bounds[i] = new Rectangle(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight());
+        }
+    }
+
+    // the bucket layout, in the form read() expects; the rectangles are stored separately
+    void write(DataOutputStream out) throws IOException {
+        out.writeFloat(cellSize);
+        out.writeFloat(originX);
+        out.writeFloat(originY);
+        out.writeFloat(maxX);
+        out.writeFloat(maxY);
+        out.writeInt(columns);
+        out.writeInt(rows);
+        for (int start : cellStart) {
+            out.writeInt(start);
+        }
+        out.writeInt(cellItems.length);
+        for (int item : cellItems) {
+            out.writeInt(item);
+        }
+    }
+
+    // a grid saved by write() over the same rectangles, in the same order
+    static CollisionGrid read(ByteBuffer in, Array<CollisionRectangle> rectangles) {
+        float cellSize = in.getFloat();
+        float originX = in.getFloat();
+        float originY = in.getFloat();
+        float maxX = in.getFloat();
+        float maxY = in.getFloat();
+        int columns = in.getInt();
+        int rows = in.getInt();
+        int[] cellStart = new int[columns * rows + 1];
+        in.asIntBuffer().get(cellStart);
+        in.position(in.position() + cellStart.length * 4);
+        int[] cellItems = new int[in.getInt()];
+        in.asIntBuffer().get(cellItems);
+        in.position(in.position() + cellItems.length * 4);
+        return new CollisionGrid(rectangles, cellSize, originX, originY, maxX, maxY, columns, rows, cellStart, cellItems);
+    }
+
+    /**
+     * True if the point is inside (or on the edge of) any rectangle.
+     */
+    public boolean containsPoint(float px, float py) {
+        if (px < originX || py < originY || px > maxX || py > maxY) return false;
+        int c = row(py) * columns + column(px);
+        for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+            CollisionRectangle rect = rectangles.get(cellItems[i]);
+            if (rect.getX() <= px && px <= rect.getX() + rect.getWidth() &&
+                rect.getY() <= py && py <= rect.getY() + rect.getHeight()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if the box overlaps any rectangle, using {@link CollisionRectangle#collisionCheck}.
+     */
+    public boolean overlaps(CollisionRectangle box) {
+        float boxMaxX = box.getX() + box.getWidth();
+        float boxMaxY = box.getY() + box.getHeight();
+        if (boxMaxX < originX || boxMaxY < originY || box.getX() > maxX || box.getY() > maxY) return false;
+        beginQuery();
+        for (int cy = row(box.getY()); cy <= row(boxMaxY); cy++) {
+            for (int cx = column(box.getX()); cx <= column(boxMaxX); cx++) {
+                int c = cy * columns + cx;
+                for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                    int item = cellItems[i];
+                    if (testedStamp[item] == queryId) continue;
+                    testedStamp[item] = queryId;
+                    if (box.collisionCheck(rectangles.get(item))) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if the segment touches any rectangle, using {@link Intersector#intersectSegmentRectangle}.
+     * Walks the buckets along the segment (Amanatides-Woo), so long segments stay cheap.
+     */
+    public boolean intersectsSegment(float startX, float startY, float endX, float endY) {
+        // clip to the covered area first, nothing lies outside it (Liang-Barsky)
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double t0 = 0.0, t1 = 1.0;
+        if (dx == 0.0) {
+            if (startX < originX || startX > maxX) return false;
+        } else {
+            double ta = (originX - startX) / dx;
+            double tb = (maxX - startX) / dx;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (dy == 0.0) {
+            if (startY < originY || startY > maxY) return false;
+        } else {
+            double ta = (originY - startY) / dy;
+            double tb = (maxY - startY) / dy;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (t0 > t1) return false;
+
+        beginQuery();
+        int cx = column((float) (startX + dx * t0));
+        int cy = row((float) (startY + dy * t0));
+        int endColumn = column((float) (startX + dx * t1));
+        int endRow = row((float) (startY + dy * t1));
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+
+        while (true) {
+            if (segmentHitsCell(cx, cy, startX, startY, endX, endY)) return true;
+            if (cx == endColumn && cy == endRow) return false;
+            // segment parameter at which the walk leaves the bucket on each axis, worked out from
+            // the bucket edge each time so rounding can't build up along long segments
+            double tNextX = stepX != 0 ? (originX + (stepX > 0 ? cx + 1 : cx) * (double) cellSize - startX) / dx : Double.MAX_VALUE;
+            double tNextY = stepY != 0 ? (originY + (stepY > 0 ? cy + 1 : cy) * (double) cellSize - startY) / dy : Double.MAX_VALUE;
+            if (Math.min(tNextX, tNextY) > t1) return false;
+            if (tNextX < tNextY) {
+                cx += stepX;
+            } else if (tNextY < tNextX) {
+                cy += stepY;
+            } else {
+                // exactly through a corner: the segment touches both side buckets too
+                if (segmentHitsCell(cx + stepX, cy, startX, startY, endX, endY)) return true;
+                if (segmentHitsCell(cx, cy + stepY, startX, startY, endX, endY)) return true;
+                cx += stepX;
+                cy += stepY;
+            }
+            if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return false;
+        }
+    }
+
+    /**
+     * Segment parameter in [0, 1] at which the segment first touches a rectangle, or -1 if it
+     * touches none. 0 means it starts inside or on the edge of one. Rectangles count as closed,
+     * like {@link #intersectsSegment}.
+     */
+    public float firstHitTime(float startX, float startY, float endX, float endY) {
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double t0 = 0.0, t1 = 1.0;
+        if (dx == 0.0) {
+            if (startX < originX || startX > maxX) return -1f;
+        } else {
+            double ta = (originX - startX) / dx;
+            double tb = (maxX - startX) / dx;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (dy == 0.0) {
+            if (startY < originY || startY > maxY) return -1f;
+        } else {
+            double ta = (originY - startY) / dy;
+            double tb = (maxY - startY) / dy;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (t0 > t1) return -1f;
+
+        beginQuery();
+        int cx = column((float) (startX + dx * t0));
+        int cy = row((float) (startY + dy * t0));
+        int endColumn = column((float) (startX + dx * t1));
+        int endRow = row((float) (startY + dy * t1));
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+
+        // the point where the segment enters a rectangle lies in a bucket listing that rectangle,
+        // so once the walk has left every bucket before the best hit so far, nothing can beat it
+        double best = Double.MAX_VALUE;
+        while (true) {
+            best = Math.min(best, earliestHitInCell(cx, cy, startX, startY, dx, dy));
+            if (cx == endColumn && cy == endRow) break;
+            double tNextX = stepX != 0 ? (originX + (stepX > 0 ? cx + 1 : cx) * (double) cellSize - startX) / dx : Double.MAX_VALUE;
+            double tNextY = stepY != 0 ? (originY + (stepY > 0 ? cy + 1 : cy) * (double) cellSize - startY) / dy : Double.MAX_VALUE;
+            double leave = Math.min(tNextX, tNextY);
+            if (best <= leave || leave > t1) break;
+            if (tNextX < tNextY) {
+                cx += stepX;
+            } else if (tNextY < tNextX) {
+                cy += stepY;
+            } else {
+                // exactly through a corner: the segment touches both side buckets too
+                best = Math.min(best, earliestHitInCell(cx + stepX, cy, startX, startY, dx, dy));
+                best = Math.min(best, earliestHitInCell(cx, cy + stepY, startX, startY, dx, dy));
+                cx += stepX;
+                cy += stepY;
+            }
+            if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) break;
+        }
+        return best <= 1.0 ? (float) best : -1f;
+    }
+
+    // earliest entry parameter into the not yet tested rectangles of bucket (cx, cy), or MAX_VALUE
+    private double earliestHitInCell(int cx, int cy, float startX, float startY, double dx, double dy) {
+        if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return Double.MAX_VALUE;
+        double best = Double.MAX_VALUE;
+        int c = cy * columns + cx;
+        for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+            int item = cellItems[i];
+            if (testedStamp[item] == queryId) continue;
+            testedStamp[item] = queryId;
+            best = Math.min(best, entryTime(bounds[item], startX, startY, dx, dy));
+        }
+        return best;
+    }
+
+    // slab test against the closed rectangle, entry parameter in [0, 1] or MAX_VALUE if missed
+    private static double entryTime(Rectangle rect, float startX, float startY, double dx, double dy) {
+        double t0 = 0.0, t1 = 1.0;
+        if (dx == 0.0) {
+            if (startX < rect.x || startX > rect.x + rect.width) return Double.MAX_VALUE;
+        } else {
+            double ta = (rect.x - startX) / dx;
+            double tb = (rect.x + rect.width - startX) / dx;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (dy == 0.0) {
+            if (startY < rect.y || startY > rect.y + rect.height) return Double.MAX_VALUE;
+        } else {
+            double ta = (rect.y - startY) / dy;
+            double tb = (rect.y + rect.height - startY) / dy;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        return t0 <= t1 ? t0 : Double.MAX_VALUE;
+    }
+
+    private boolean segmentHitsCell(int cx, int cy, float startX, float startY, float endX, float endY) {
+        if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return false;
+        int c = cy * columns + cx;
+        for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+            int item = cellItems[i];
+            if (testedStamp[item] == queryId) continue;
+            testedStamp[item] = queryId;
+            if (Intersector.intersectSegmentRectangle(startX, startY, endX, endY, bounds[item])) return true;
+        }
+        return false;
+    }
+
+    private void beginQuery() {
+        if (++queryId == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(testedStamp, 0);
+            queryId = 1;
+        }
+    }
+
+    // bucket column of a world x, clamped into the grid
+    private int column(float worldX) {
+        int cx = (int) Math.floor((worldX - originX) / cellSize);
+        return Math.max(0, Math.min(columns - 1, cx));
+    }
+
+    private int row(float worldY) {
+        int cy = (int) Math.floor((worldY - originY) / cellSize);
+        return Math.max(0, Math.min(rows - 1, cy));
+    }
+
+    public Array<CollisionRectangle> getRectangles() {
+        return rectangles;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+}
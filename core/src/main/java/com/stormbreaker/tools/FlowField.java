@@ -0,0 +1,90 @@
+package com.stormbreaker.tools;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Distance-to-target field over an {@link AStarPathfinder} grid.
+ *
+ * Built with one Dijkstra flood outward from the target cell; every reached cell remembers
+ * the neighbour it was reached from, which is its next step toward the target. Looking up
+ * where to walk next is then a couple of array reads, however many agents share the field.
+ */
+public class FlowField {
+    private final AStarPathfinder grid;
+    private final int[] next;       // neighbour one step closer to the target, -1 at the target or if unreachable
+    private final float[] distance; // path cost to the target, -1 if unreachable
+    private int targetCell = -1;
+
+    FlowField(AStarPathfinder grid) {
+        this.grid = grid;
+        int cellCount = grid.getGridWidth() * grid.getGridHeight();
+        this.next = new int[cellCount];
+        this.distance = new float[cellCount];
+    }
+
+    // refills the field for a new target, reusing the arrays
+    void build(int targetCell) {
+        this.targetCell = targetCell;
+        grid.floodWithin(targetCell, 0, 0, grid.getGridWidth() - 1, grid.getGridHeight() - 1);
+        for (int cell = 0; cell < next.length; cell++) {
+            float cost = grid.settledCost(cell);
+            distance[cell] = cost;
+            next[cell] = cost >= 0f ? grid.parentOf(cell) : -1;
+        }
+    }
+
+    /**
+     * Writes the centre of the next cell to walk to from (x, y) into out. Returns false when the
+     * target can't be reached from there, or when (x, y) is already within arrivalRadius of the
+     * target cell's centre.
+     */
+    public boolean nextWaypoint(float x, float y, float arrivalRadius, Vector2 out) {
+        int cx = grid.toCellX(x);
+        int cy = grid.toCellY(y);
+        if (cx < 0 || cy < 0 || cx >= grid.getGridWidth() || cy >= grid.getGridHeight()) return false;
+        int cell = cy * grid.getGridWidth() + cx;
+
+        int step;
+        if (cell == targetCell) {
+            step = targetCell;
+        } else if (distance[cell] >= 0f) {
+            step = next[cell];
+        } else {
+            // standing inside an obstacle buffer: step to the neighbour with the shortest way out
+            step = bestNeighbour(cx, cy);
+            if (step < 0) return false;
+        }
+
+        float cellSize = grid.getCellSize();
+        out.set((step % grid.getGridWidth()) * cellSize + cellSize / 2f, (step / grid.getGridWidth()) * cellSize + cellSize / 2f);
+        return step != targetCell || out.dst2(x, y) > arrivalRadius * arrivalRadius;
+    }
+
+    private int bestNeighbour(int cx, int cy) {
+        int best = -1;
+        float bestCost = Float.MAX_VALUE;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if ((dx == 0 && dy == 0) || !grid.isWalkable(cx + dx, cy + dy)) continue;
+                int neighbor = (cy + dy) * grid.getGridWidth() + cx + dx;
+                if (distance[neighbor] < 0f) continue;
+                float cost = distance[neighbor] + ((dx == 0 || dy == 0) ? AStarPathfinder.STRAIGHT_COST : AStarPathfinder.DIAGONAL_COST);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = neighbor;
+                }
+            }
+        }
+        return best;
+    }
+
+    // path cost from the cell to the target, -1 if unreachable
+    public float getDistance(int cellX, int cellY) {
+        if (!grid.isWalkable(cellX, cellY)) return -1f;
+        return distance[cellY * grid.getGridWidth() + cellX];
+    }
+
+    public int getTargetCell() {
+        return targetCell;
+    }
+}
@@ -0,0 +1,74 @@
+package com.stormbreaker.tools;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Flow fields keyed by target cell, shared by every enemy chasing the same spot.
+ *
+ * The first request for a target cell floods the grid once; everyone else heading for that
+ * cell reuses the field, so chasing costs one search per target instead of one per enemy
+ * per replan. The grid never changes during a level, so fields only leave the cache when it
+ * is full, oldest first, and their arrays are reused for the next target.
+ *
+ * Uses the pathfinder's scratch arrays, so it runs on the same thread as the pathfinder.
+ */
+public class FlowFieldCache {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final AStarPathfinder grid;
+    private final int capacity;
+    private final IntMap<FlowField> fields = new IntMap<>();
+    private final Array<FlowField> buildOrder = new Array<>();
+
+    public FlowFieldCache(AStarPathfinder grid) {
+        this(grid, DEFAULT_CAPACITY);
+    }
+
+    public FlowFieldCache(AStarPathfinder grid, int capacity) {
+        this.grid = grid;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Field leading to the cell that contains target, or null if that cell isn't walkable.
+     */
+    public FlowField get(Vector2 target) {
+        int cx = grid.toCellX(target.x);
+        int cy = grid.toCellY(target.y);
+        if (!grid.isWalkable(cx, cy)) return null;
+        int targetCell = cy * grid.getGridWidth() + cx;
+
+        FlowField field = fields.get(targetCell);
+        if (field != null) return field;
+
+        if (buildOrder.size >= capacity) {
+            field = buildOrder.removeIndex(0);
+            fields.remove(field.getTargetCell());
+        } else {
+            field = new FlowField(grid);
+        }
+        field.build(targetCell);
+        fields.put(targetCell, field);
+        buildOrder.add(field);
+        return field;
+    }
+
+    /**
+     * Next waypoint from (x, y) toward target, see {@link FlowField#nextWaypoint}.
+     */
+    public boolean nextWaypoint(float x, float y, Vector2 target, float arrivalRadius, Vector2 out) {
+        FlowField field = get(target);
+        return field != null && field.nextWaypoint(x, y, arrivalRadius, out);
+    }
+
+    public void clear() {
+        fields.clear();
+        buildOrder.clear();
+    }
+
+    public int size() {
+        return buildOrder.size;
+    }
+}
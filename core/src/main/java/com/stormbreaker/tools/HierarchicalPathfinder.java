@@ -0,0 +1,471 @@
+package com.stormbreaker.tools;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * HPA* layer over an {@link AStarPathfinder} grid.
+ *
+ * At construction the grid is cut into square clusters. Every straight opening between two
+ * neighbouring clusters gets one entrance (two if it is wide), and the cost between every
+ * pair of entrances inside a cluster is found with a cluster-bounded Dijkstra, keeping the
+ * cell path of every edge. A query then only floods the start and goal clusters, runs A* over
+ * the small entrance graph, and stitches the cached edge paths together, so the work no
+ * longer grows with the size of the map.
+ *
+ * Paths are near-optimal rather than optimal. Openings the entrance scan cannot see (a
+ * diagonal squeeze across a cluster border or corner) make the abstract search fail, in
+ * which case the query falls back to a full-grid JPS; a connected-region table built here
+ * rejects unreachable goals before any search runs.
+ *
+ * Shares the pathfinder's scratch arrays, so the same threading rules apply. A copy made for
+ * another pathfinder over the same grid shares the cluster graph, which never changes once
+ * built, and only gets its own query scratch.
+ */
+class HierarchicalPathfinder {
+    static final int DEFAULT_CLUSTER_SIZE = 16;
+    // openings at least this wide get an entrance at each end instead of one in the middle
+    private static final int WIDE_ENTRANCE = 6;
+
+    private final AStarPathfinder grid;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+
+    // 8-connected region id per cell, -1 for blocked cells
+    private final int[] region;
+
+    // abstract graph: one node per entrance cell, edges packed per node
+    private final int[] nodeOfCell;
+    private int nodeCount;
+    private int[] nodeCell = new int[64];
+    // border crossings found while building, stored as (cell, cell across) pairs
+    private int[] links = new int[64];
+    private int linkCount;
+    private int[] edgeStart;
+    private int[] edgeTarget;
+    private float[] edgeCost;
+    // cells walked by each edge, excluding its source: pathCells[edgePathStart[e] .. + edgePathLength[e]]
+    private int[] edgePathStart;
+    private int[] edgePathLength;
+    private int[] pathCells = new int[256];
+    private int pathCellCount;
+    // nodes grouped by cluster
+    private int[] clusterNodeStart;
+    private int[] clusterNodes;
+
+    // per-query scratch over nodeCount + 2 ids (the last two are the start and goal)
+    private final float[] g;
+    private final float[] f;
+    private final int[] parent;
+    private final int[] parentEdge; // edge used to reach the node, -1 for the start and goal links
+    private final int[] openStamp;
+    private final int[] closedStamp;
+    private final IndexedMinHeap open;
+    private final float[] startCost; // start -> node, valid when startStamp == queryId
+    private final float[] goalCost;  // node -> goal, valid when goalStamp == queryId
+    private final int[] startStamp;
+    private final int[] goalStamp;
+    private int queryId;
+
+    HierarchicalPathfinder(AStarPathfinder grid, int clusterSize) {
+        this(grid, clusterSize, null);
+    }
+
+    // same graph for grid, a copy of shared's pathfinder; nothing is rebuilt
+    HierarchicalPathfinder(HierarchicalPathfinder shared, AStarPathfinder grid) {
+        this(grid, shared.clusterSize, shared);
+    }
+
+    private HierarchicalPathfinder(AStarPathfinder grid, int clusterSize, HierarchicalPathfinder shared) {
+        this.grid = grid;
+        this.gridWidth = grid.getGridWidth();
+        this.gridHeight = grid.getGridHeight();
+        this.clusterSize = clusterSize;
+        this.clustersX = (gridWidth + clusterSize - 1) / clusterSize;
+        this.clustersY = (gridHeight + clusterSize - 1) / clusterSize;
+
+        if (shared == null) {
+            this.region = buildRegions();
+            this.nodeOfCell = new int[gridWidth * gridHeight];
+            Arrays.fill(nodeOfCell, -1);
+            buildGraph();
+        } else {
+            this.region = shared.region;
+            this.nodeOfCell = shared.nodeOfCell;
+            this.nodeCount = shared.nodeCount;
+            this.nodeCell = shared.nodeCell;
+            this.links = null;
+            this.edgeStart = shared.edgeStart;
+            this.edgeTarget = shared.edgeTarget;
+            this.edgeCost = shared.edgeCost;
+            this.edgePathStart = shared.edgePathStart;
+            this.edgePathLength = shared.edgePathLength;
+            this.pathCells = shared.pathCells;
+            this.pathCellCount = shared.pathCellCount;
+            this.clusterNodeStart = shared.clusterNodeStart;
+            this.clusterNodes = shared.clusterNodes;
+        }
+
+        int ids = nodeCount + 2;
+        this.g = new float[ids];
+        this.f = new float[ids];
+        this.parent = new int[ids];
+        this.parentEdge = new int[ids];
+        this.openStamp = new int[ids];
+        this.closedStamp = new int[ids];
+        this.open = new IndexedMinHeap(ids, f);
+        this.startCost = new float[nodeCount];
+        this.goalCost = new float[nodeCount];
+        this.startStamp = new int[nodeCount];
+        this.goalStamp = new int[nodeCount];
+    }
+
+    Array<Vector2> findPath(int startCell, int goalCell) {
+        // a start inside the obstacle buffer has no region of its own, let the search sort it out
+        if (region[startCell] >= 0 && region[startCell] != region[goalCell]) return null;
+
+        int startCluster = clusterOf(startCell);
+        int goalCluster = clusterOf(goalCell);
+        if (startCluster == goalCluster) {
+            Array<Vector2> local = grid.findPathWithin(startCell, goalCell,
+                clusterMinX(startCluster), clusterMinY(startCluster), clusterMaxX(startCluster), clusterMaxY(startCluster));
+            if (local != null) return local;
+        }
+
+        if (++queryId == Integer.MAX_VALUE) {
+            Arrays.fill(openStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            Arrays.fill(startStamp, 0);
+            Arrays.fill(goalStamp, 0);
+            queryId = 1;
+        }
+        // costs between the endpoints and the entrances of their own clusters (the grid is undirected).
+        // The start flood runs last so refine() can read the first hop straight out of it.
+        connectEndpoint(goalCell, goalCluster, goalCost, goalStamp);
+        connectEndpoint(startCell, startCluster, startCost, startStamp);
+
+        int last = searchAbstract(startCluster, goalCell);
+        if (last < 0) return grid.findPathCells(startCell, goalCell);
+        return refine(startCell, goalCell, last);
+    }
+
+    // A* over the entrance graph, returns the node that stepped onto the goal or -1
+    private int searchAbstract(int startCluster, int goalCell) {
+        int startId = nodeCount;
+        int goalId = nodeCount + 1;
+        int goalX = goalCell % gridWidth;
+        int goalY = goalCell / gridWidth;
+
+        open.clear();
+        g[startId] = 0f;
+        f[startId] = 0f;
+        parent[startId] = -1;
+        openStamp[startId] = queryId;
+        open.push(startId);
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            if (current == goalId) return parent[goalId];
+            closedStamp[current] = queryId;
+
+            if (current == startId) {
+                for (int i = clusterNodeStart[startCluster]; i < clusterNodeStart[startCluster + 1]; i++) {
+                    int n = clusterNodes[i];
+                    if (startStamp[n] == queryId) relax(startId, n, -1, startCost[n], goalX, goalY);
+                }
+                continue;
+            }
+            for (int e = edgeStart[current]; e < edgeStart[current + 1]; e++) {
+                relax(current, edgeTarget[e], e, edgeCost[e], goalX, goalY);
+            }
+            if (goalStamp[current] == queryId) relax(current, goalId, -1, goalCost[current], goalX, goalY);
+        }
+        return -1;
+    }
+
+    private void relax(int from, int to, int edge, float cost, int goalX, int goalY) {
+        if (closedStamp[to] == queryId) return;
+        float tentativeG = g[from] + cost;
+        boolean inOpen = openStamp[to] == queryId;
+        if (inOpen && tentativeG >= g[to]) return;
+        g[to] = tentativeG;
+        parent[to] = from;
+        parentEdge[to] = edge;
+        if (to == nodeCount + 1) {
+            f[to] = tentativeG;
+        } else {
+            int cell = nodeCell[to];
+            f[to] = tentativeG + AStarPathfinder.heuristic(cell % gridWidth, cell / gridWidth, goalX, goalY);
+        }
+        if (inOpen) {
+            open.decreaseKey(to);
+        } else {
+            openStamp[to] = queryId;
+            open.push(to);
+        }
+    }
+
+    // turns start -> entrances... -> goal into cell waypoints: the first hop comes from the start
+    // flood, the last one is searched inside the goal cluster, the rest are cached edge paths
+    private Array<Vector2> refine(int startCell, int goalCell, int last) {
+        int hops = 0;
+        for (int n = last; n != nodeCount; n = parent[n]) hops++;
+        int[] nodes = new int[hops];
+        for (int n = last, i = hops - 1; n != nodeCount; n = parent[n], i--) {
+            nodes[i] = n;
+        }
+
+        Array<Vector2> path = new Array<>();
+        for (int cell = nodeCell[nodes[0]]; cell != startCell; cell = grid.parentOf(cell)) {
+            path.add(toWorld(cell));
+        }
+        path.add(toWorld(startCell));
+        path.reverse();
+        for (int i = 1; i < hops; i++) {
+            int e = parentEdge[nodes[i]];
+            for (int c = edgePathStart[e]; c < edgePathStart[e] + edgePathLength[e]; c++) {
+                path.add(toWorld(pathCells[c]));
+            }
+        }
+        if (!appendLocal(path, nodeCell[last], goalCell)) return grid.findPathCells(startCell, goalCell);
+        return path;
+    }
+
+    // appends the cluster-bounded path from -> to without repeating from
+    private boolean appendLocal(Array<Vector2> path, int from, int to) {
+        if (from == to) return true;
+        int cluster = clusterOf(from);
+        Array<Vector2> segment = grid.findPathWithin(from, to,
+            clusterMinX(cluster), clusterMinY(cluster), clusterMaxX(cluster), clusterMaxY(cluster));
+        if (segment == null) return false;
+        for (int i = 1; i < segment.size; i++) {
+            path.add(segment.get(i));
+        }
+        return true;
+    }
+
+    private void connectEndpoint(int cell, int cluster, float[] cost, int[] stamp) {
+        grid.floodWithin(cell, clusterMinX(cluster), clusterMinY(cluster), clusterMaxX(cluster), clusterMaxY(cluster));
+        for (int i = clusterNodeStart[cluster]; i < clusterNodeStart[cluster + 1]; i++) {
+            int node = clusterNodes[i];
+            float c = grid.settledCost(nodeCell[node]);
+            if (c >= 0f) {
+                cost[node] = c;
+                stamp[node] = queryId;
+            }
+        }
+    }
+
+    // --- construction ---
+
+    private int[] buildRegions() {
+        int[] ids = new int[gridWidth * gridHeight];
+        Arrays.fill(ids, -1);
+        int[] stack = new int[ids.length];
+        int next = 0;
+        for (int seed = 0; seed < ids.length; seed++) {
+            if (ids[seed] != -1 || !grid.isWalkable(seed % gridWidth, seed / gridWidth)) continue;
+            int top = 0;
+            stack[top++] = seed;
+            ids[seed] = next;
+            while (top > 0) {
+                int cell = stack[--top];
+                int cx = cell % gridWidth;
+                int cy = cell / gridWidth;
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int nx = cx + dx;
+                        int ny = cy + dy;
+                        if (!grid.isWalkable(nx, ny)) continue;
+                        int neighbor = ny * gridWidth + nx;
+                        if (ids[neighbor] != -1) continue;
+                        ids[neighbor] = next;
+                        stack[top++] = neighbor;
+                    }
+                }
+            }
+            next++;
+        }
+        return ids;
+    }
+
+    private void buildGraph() {
+        // entrances, as pairs of touching cells on either side of a cluster border
+        for (int cy = 0; cy < clustersY; cy++) {
+            for (int cx = 0; cx < clustersX; cx++) {
+                if (cx + 1 < clustersX) {
+                    int x = (cx + 1) * clusterSize - 1;
+                    scanBorder(x, cy * clusterSize, 0, 1, 1, 0,
+                        Math.min(clusterSize, gridHeight - cy * clusterSize));
+                }
+                if (cy + 1 < clustersY) {
+                    int y = (cy + 1) * clusterSize - 1;
+                    scanBorder(cx * clusterSize, y, 1, 0, 0, 1,
+                        Math.min(clusterSize, gridWidth - cx * clusterSize));
+                }
+            }
+        }
+        for (int i = 0; i < linkCount; i++) {
+            if (nodeOfCell[links[i]] == -1) addNode(links[i]);
+        }
+
+        // group nodes by cluster
+        int clusterCount = clustersX * clustersY;
+        clusterNodeStart = new int[clusterCount + 1];
+        for (int n = 0; n < nodeCount; n++) clusterNodeStart[clusterOf(nodeCell[n]) + 1]++;
+        for (int c = 0; c < clusterCount; c++) clusterNodeStart[c + 1] += clusterNodeStart[c];
+        clusterNodes = new int[nodeCount];
+        int[] fill = Arrays.copyOf(clusterNodeStart, clusterCount);
+        for (int n = 0; n < nodeCount; n++) clusterNodes[fill[clusterOf(nodeCell[n])]++] = n;
+
+        // edges: border crossings plus every reachable entrance pair inside a cluster
+        int[] from = new int[linkCount * 2 + 64];
+        int[] to = new int[from.length];
+        float[] cost = new float[from.length];
+        int[] pathStart = new int[from.length];
+        int edgeCount = 0;
+        for (int i = 0; i < linkCount; i += 2) {
+            int a = nodeOfCell[links[i]];
+            int b = nodeOfCell[links[i + 1]];
+            from[edgeCount] = a; to[edgeCount] = b; cost[edgeCount] = AStarPathfinder.STRAIGHT_COST;
+            pathStart[edgeCount++] = addPathCell(links[i + 1]);
+            from[edgeCount] = b; to[edgeCount] = a; cost[edgeCount] = AStarPathfinder.STRAIGHT_COST;
+            pathStart[edgeCount++] = addPathCell(links[i]);
+        }
+        for (int c = 0; c < clusterCount; c++) {
+            for (int i = clusterNodeStart[c]; i < clusterNodeStart[c + 1]; i++) {
+                int node = clusterNodes[i];
+                grid.floodWithin(nodeCell[node], clusterMinX(c), clusterMinY(c), clusterMaxX(c), clusterMaxY(c));
+                for (int j = clusterNodeStart[c]; j < clusterNodeStart[c + 1]; j++) {
+                    int other = clusterNodes[j];
+                    float c2 = other == node ? -1f : grid.settledCost(nodeCell[other]);
+                    if (c2 < 0f) continue;
+                    if (edgeCount == from.length) {
+                        from = Arrays.copyOf(from, edgeCount * 2);
+                        to = Arrays.copyOf(to, edgeCount * 2);
+                        cost = Arrays.copyOf(cost, edgeCount * 2);
+                        pathStart = Arrays.copyOf(pathStart, edgeCount * 2);
+                    }
+                    from[edgeCount] = node; to[edgeCount] = other; cost[edgeCount] = c2;
+                    pathStart[edgeCount++] = addFloodPath(nodeCell[node], nodeCell[other]);
+                }
+            }
+        }
+
+        links = null;
+
+        // pack edges by source node
+        edgeStart = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) edgeStart[from[e] + 1]++;
+        for (int n = 0; n < nodeCount; n++) edgeStart[n + 1] += edgeStart[n];
+        edgeTarget = new int[edgeCount];
+        edgeCost = new float[edgeCount];
+        edgePathStart = new int[edgeCount];
+        edgePathLength = new int[edgeCount];
+        int[] cursor = Arrays.copyOf(edgeStart, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int slot = cursor[from[e]]++;
+            edgeTarget[slot] = to[e];
+            edgeCost[slot] = cost[e];
+            edgePathStart[slot] = pathStart[e];
+            edgePathLength[slot] = (e + 1 < edgeCount ? pathStart[e + 1] : pathCellCount) - pathStart[e];
+        }
+        pathCells = Arrays.copyOf(pathCells, pathCellCount);
+    }
+
+    // stores one cell of an edge path, returns where it went
+    private int addPathCell(int cell) {
+        if (pathCellCount == pathCells.length) pathCells = Arrays.copyOf(pathCells, pathCellCount * 2);
+        pathCells[pathCellCount] = cell;
+        return pathCellCount++;
+    }
+
+    // stores source -> target (minus source) from the flood that is still in the grid's scratch arrays
+    private int addFloodPath(int source, int target) {
+        int length = 0;
+        for (int cell = target; cell != source; cell = grid.parentOf(cell)) length++;
+        int start = pathCellCount;
+        for (int i = 0; i < length; i++) addPathCell(0);
+        int i = start + length - 1;
+        for (int cell = target; cell != source; cell = grid.parentOf(cell)) {
+            pathCells[i--] = cell;
+        }
+        return start;
+    }
+
+    // walks one border from (x, y) in steps of (stepX, stepY); the cell across is (x + crossX, y + crossY)
+    private void scanBorder(int x, int y, int stepX, int stepY, int crossX, int crossY, int length) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int ax = x + stepX * i;
+            int ay = y + stepY * i;
+            boolean openHere = i < length && grid.isWalkable(ax, ay) && grid.isWalkable(ax + crossX, ay + crossY);
+            if (openHere) {
+                if (runStart < 0) runStart = i;
+                continue;
+            }
+            if (runStart < 0) continue;
+            int runEnd = i - 1;
+            if (runEnd - runStart + 1 >= WIDE_ENTRANCE) {
+                addLink(x + stepX * runStart, y + stepY * runStart, crossX, crossY);
+                addLink(x + stepX * runEnd, y + stepY * runEnd, crossX, crossY);
+            } else {
+                int mid = (runStart + runEnd) / 2;
+                addLink(x + stepX * mid, y + stepY * mid, crossX, crossY);
+            }
+            runStart = -1;
+        }
+    }
+
+    private void addLink(int x, int y, int crossX, int crossY) {
+        if (linkCount + 2 > links.length) links = Arrays.copyOf(links, links.length * 2);
+        links[linkCount++] = y * gridWidth + x;
+        links[linkCount++] = (y + crossY) * gridWidth + x + crossX;
+    }
+
+    private void addNode(int cell) {
+        if (nodeCount == nodeCell.length) nodeCell = Arrays.copyOf(nodeCell, nodeCount * 2);
+        nodeCell[nodeCount] = cell;
+        nodeOfCell[cell] = nodeCount++;
+    }
+
+    // --- cluster helpers ---
+
+    private int clusterOf(int cell) {
+        return (cell / gridWidth / clusterSize) * clustersX + (cell % gridWidth) / clusterSize;
+    }
+
+    private int clusterMinX(int cluster) {
+        return (cluster % clustersX) * clusterSize;
+    }
+
+    private int clusterMinY(int cluster) {
+        return (cluster / clustersX) * clusterSize;
+    }
+
+    private int clusterMaxX(int cluster) {
+        return clusterMinX(cluster) + clusterSize - 1;
+    }
+
+    private int clusterMaxY(int cluster) {
+        return clusterMinY(cluster) + clusterSize - 1;
+    }
+
+    private Vector2 toWorld(int cell) {
+        float cellSize = grid.getCellSize();
+        return new Vector2((cell % gridWidth) * cellSize + cellSize / 2f, (cell / gridWidth) * cellSize + cellSize / 2f);
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    int getEdgeCount() {
+        return edgeTarget.length;
+    }
+}
@@ -0,0 +1,89 @@
+package com.stormbreaker.tools;
+
+/**
+ * Binary min-heap of int ids in [0, capacity) ordered by an external key array.
+ *
+ * The owner writes {@code keys[id]} before calling {@link #push} or {@link #decreaseKey};
+ * the heap only stores ids and their positions, so nothing is allocated after construction.
+ * Membership is tracked by the owner (the pathfinders use generation stamps for that).
+ */
+final class IndexedMinHeap {
+    private final float[] keys;
+    private final int[] heap;
+    private final int[] pos; // index of the id inside heap, valid while it is queued
+    private int size;
+
+    IndexedMinHeap(int capacity, float[] keys) {
+        this.keys = keys;
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(int id) {
+        int i = size++;
+        heap[i] = id;
+        pos[id] = i;
+        siftUp(i);
+    }
+
+    int peek() {
+        return heap[0];
+    }
+
+    int pop() {
+        int top = heap[0];
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    // call after lowering keys[id] for an id that is already queued
+    void decreaseKey(int id) {
+        siftUp(pos[id]);
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        float key = keys[id];
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            int parentId = heap[p];
+            if (keys[parentId] <= key) break;
+            heap[i] = parentId;
+            pos[parentId] = i;
+            i = p;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        float key = keys[id];
+        int half = size >> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) child = right;
+            int childId = heap[child];
+            if (key <= keys[childId]) break;
+            heap[i] = childId;
+            pos[childId] = i;
+            i = child;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
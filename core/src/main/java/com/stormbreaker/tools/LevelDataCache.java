@@ -0,0 +1,162 @@
+package com.stormbreaker.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Binary cache of what a level derives from its TMX file: the collision rectangles, their
+ * {@link CollisionGrid} buckets and the enemy pathfinder's walkable grid.
+ *
+ * There is one file per map under ~/.stormbreaker/level-cache, memory-mapped when it is read.
+ * The header carries a format version plus the CRC32 and length of the TMX file, so any edit to
+ * the map makes the whole file a miss, and the walkable grid is stored with the cell size and
+ * buffer it was built for. A miss just means the data is built as before and written back for
+ * the next run. Files that can't be read or written are ignored; the cache only ever saves work.
+ *
+ * The {@link VisibilityGrid} and the potentially visible set are still built from the cached
+ * rectangles each level.
+ */
+public class LevelDataCache {
+    private static final int MAGIC = 0x53424C43; // "SBLC"
+    private static final int VERSION = 1; // bump whenever the layout or the way the data is derived changes
+    private static final int HEADER_BYTES = 24;
+    private static final String CACHE_DIR = ".stormbreaker/level-cache/";
+
+    private final FileHandle file;
+    private final long mapChecksum;
+    private final long mapLength;
+
+    private Array<CollisionRectangle> rectangles;
+    private CollisionGrid collisionGrid;
+    private ByteBuffer navigation; // saved walkable grid, decoded once someone asks with matching settings
+    private AStarPathfinder pathfinder; // walkable grid to write on the next save
+    private boolean dirty;
+
+    public LevelDataCache(String mapPath) {
+        byte[] tmx = Gdx.files.internal(mapPath).readBytes();
+        CRC32 crc = new CRC32();
+        crc.update(tmx);
+        mapChecksum = crc.getValue();
+        mapLength = tmx.length;
+        file = Gdx.files.external(CACHE_DIR + mapPath.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin");
+
+        // check the header with a plain read first, a stale file is never mapped and can be replaced
+        if (file.exists() && file.length() > HEADER_BYTES && headerMatches()) {
+            try {
+                ByteBuffer in = file.map(FileChannel.MapMode.READ_ONLY);
+                in.position(HEADER_BYTES);
+                read(in);
+            } catch (RuntimeException e) {
+                // truncated file, build everything again
+                rectangles = null;
+                collisionGrid = null;
+                navigation = null;
+            }
+        }
+    }
+
+    private boolean headerMatches() {
+        try (DataInputStream in = new DataInputStream(file.read())) {
+            return in.readInt() == MAGIC && in.readInt() == VERSION
+                && in.readLong() == mapChecksum && in.readLong() == mapLength;
+        } catch (IOException | GdxRuntimeException e) {
+            return false;
+        }
+    }
+
+    private void read(ByteBuffer in) {
+        int count = in.getInt();
+        Array<CollisionRectangle> cached = new Array<>(count);
+        for (int i = 0; i < count; i++) {
+            float x = in.getFloat();
+            float y = in.getFloat();
+            cached.add(new CollisionRectangle(x, y, in.getInt(), in.getInt()));
+        }
+        CollisionGrid grid = CollisionGrid.read(in, cached);
+        if (in.get() != 0) navigation = in.slice();
+        rectangles = cached;
+        collisionGrid = grid;
+    }
+
+    // the map's collision rectangles, or null if they need extracting from the map
+    public Array<CollisionRectangle> getRectangles() {
+        return rectangles;
+    }
+
+    // broadphase over getRectangles(), null whenever they are
+    public CollisionGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+
+    public void putCollision(Array<CollisionRectangle> rectangles, CollisionGrid collisionGrid) {
+        this.rectangles = rectangles;
+        this.collisionGrid = collisionGrid;
+        this.navigation = null; // built over the old rectangles
+        this.dirty = true;
+    }
+
+    /**
+     * A pathfinder over the saved walkable grid, or null if there is none for these settings.
+     */
+    public AStarPathfinder getPathfinder(float mapWidth, float mapHeight, float cellSize, float buffer) {
+        if (navigation == null) return null;
+        try {
+            return AStarPathfinder.read(navigation.duplicate(), mapWidth, mapHeight, cellSize, buffer);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void putPathfinder(AStarPathfinder pathfinder) {
+        this.pathfinder = pathfinder;
+        this.dirty = true;
+    }
+
+    /**
+     * Writes the file if anything was put since it was read.
+     */
+    public void save() {
+        if (!dirty || rectangles == null) return;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(mapChecksum);
+            out.writeLong(mapLength);
+
+            out.writeInt(rectangles.size);
+            for (CollisionRectangle rect : rectangles) {
+                out.writeFloat(rect.getX());
+                out.writeFloat(rect.getY());
+                out.writeInt(rect.getWidth());
+                out.writeInt(rect.getHeight());
+            }
+            collisionGrid.write(out);
+
+            if (pathfinder != null) {
+                out.writeByte(1);
+                pathfinder.write(out);
+            } else if (navigation != null) {
+                // keep the grid that was already there
+                byte[] saved = new byte[navigation.remaining()];
+                navigation.duplicate().get(saved);
+                out.writeByte(1);
+                out.write(saved);
+            } else {
+                out.writeByte(0);
+            }
+            dirty = false;
+        } catch (IOException | GdxRuntimeException e) {
+            Gdx.app.error("LevelDataCache", "could not write " + file.path(), e);
+        }
+    }
+}
@@ -13,35 +13,81 @@ public class MapManager {
     private TiledMap map;
     private OrthogonalTiledMapRenderer mapRenderer;
     private Array<CollisionRectangle> collisionRectangles;
+    private CollisionGrid collisionGrid;
+    private VisibilityGrid visibilityGrid;
+    private boolean ownsMap; // false when the map came from an AssetManager, which disposes it
+    private LevelDataCache levelCache;
 
     public MapManager(String mapPath) {
         loadMap(mapPath);
     }
 
+    // uses a map that is already loaded from mapPath; it is left for its owner to dispose
+    public MapManager(TiledMap map, String mapPath) {
+        setMap(map, mapPath);
+    }
+
     public void loadMap(String mapPath) {
         // Load the Tiled map
-        map = new TmxMapLoader().load(mapPath);
-        mapRenderer = new OrthogonalTiledMapRenderer(map); // Initialize the renderer
-
-        // Extract collision rectangles from the "CollisionLayer"
-        collisionRectangles = new Array<>();
-        for (MapObject object : map.getLayers().get("CollisionLayer").getObjects()) {
-            if (object instanceof RectangleMapObject) {
-                Rectangle rect = ((RectangleMapObject) object).getRectangle();
-                collisionRectangles.add(new CollisionRectangle(rect.x, rect.y, (int) rect.width, (int) rect.height));
+        setMap(new TmxMapLoader().load(mapPath), mapPath);
+        ownsMap = true;
+    }
+
+    private void setMap(TiledMap tiledMap, String mapPath) {
+        map = tiledMap;
+        ownsMap = false;
+
+        // collision data saved by an earlier run, unless the map file changed since
+        levelCache = new LevelDataCache(mapPath);
+        collisionRectangles = levelCache.getRectangles();
+        collisionGrid = levelCache.getCollisionGrid();
+        if (collisionRectangles == null) {
+            // Extract collision rectangles from the "CollisionLayer"
+            collisionRectangles = new Array<>();
+            for (MapObject object : map.getLayers().get("CollisionLayer").getObjects()) {
+                if (object instanceof RectangleMapObject) {
+                    Rectangle rect = ((RectangleMapObject) object).getRectangle();
+                    collisionRectangles.add(new CollisionRectangle(rect.x, rect.y, (int) rect.width, (int) rect.height));
+                }
             }
+            // Bucket them once so movement, bullets and line-of-sight only test nearby rectangles
+            collisionGrid = new CollisionGrid(collisionRectangles, getMapWidth(), getMapHeight());
+            levelCache.putCollision(collisionRectangles, collisionGrid);
+            levelCache.save();
         }
+        visibilityGrid = new VisibilityGrid(collisionRectangles, getMapWidth(), getMapHeight());
     }
 
     public void render(OrthographicCamera camera) {
+        // created on first draw so headless simulations never need the renderer's shaders
+        if (mapRenderer == null) mapRenderer = new OrthogonalTiledMapRenderer(map);
         mapRenderer.setView(camera); // Set the camera view
         mapRenderer.render(); // Render the map
     }
 
+    // the enemy pathfinder for this map, read back from the level cache if one was saved with the same settings
+    public AStarPathfinder createPathfinder(float cellSize, float buffer) {
+        AStarPathfinder pathfinder = levelCache.getPathfinder(getMapWidth(), getMapHeight(), cellSize, buffer);
+        if (pathfinder == null) {
+            pathfinder = new AStarPathfinder(getMapWidth(), getMapHeight(), cellSize, collisionRectangles, buffer);
+            levelCache.putPathfinder(pathfinder);
+            levelCache.save();
+        }
+        return pathfinder;
+    }
+
     public Array<CollisionRectangle> getCollisionRectangles() {
         return collisionRectangles;
     }
 
+    public CollisionGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+
+    public VisibilityGrid getVisibilityGrid() {
+        return visibilityGrid;
+    }
+
     public float getMapWidth() {
         return map.getProperties().get("width", Integer.class) * map.getProperties().get("tilewidth", Integer.class);
     }
@@ -51,7 +97,7 @@ public class MapManager {
     }
 
     public void dispose() {
-        if (map != null) {
+        if (map != null && ownsMap) {
             map.dispose();
         }
         if (mapRenderer != null) {
@@ -0,0 +1,115 @@
+package com.stormbreaker.tools;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Runs path searches on a small pool of background threads so the render thread never waits
+ * on one.
+ *
+ * Each worker owns an {@link AStarPathfinder} copy that shares the level's walkable grid.
+ * Finished searches queue up until {@link #update()} hands them to their callbacks on the
+ * render thread, which GameSimulation does at the start of every step. A requester only
+ * ever has one live request: submitting again cancels the previous one, and cancelled or
+ * superseded requests are skipped by the workers if they haven't started yet and dropped
+ * when they complete.
+ *
+ * {@link #submit}, {@link #cancel} and {@link #update()} must be called from the render thread.
+ */
+public class PathRequestService implements Disposable {
+
+    public interface PathCallback {
+        // path is null when the goal can't be reached
+        void onPathFound(Array<Vector2> path);
+    }
+
+    private static final class Request {
+        final Object requester;
+        final Vector2 start;
+        final Vector2 goal;
+        final PathCallback callback;
+        volatile boolean cancelled;
+        Array<Vector2> path;
+
+        Request(Object requester, Vector2 start, Vector2 goal, PathCallback callback) {
+            this.requester = requester;
+            this.start = start;
+            this.goal = goal;
+            this.callback = callback;
+        }
+    }
+
+    private final ExecutorService workers;
+    private final ThreadLocal<AStarPathfinder> searchers;
+    private final ConcurrentLinkedQueue<Request> completed = new ConcurrentLinkedQueue<>();
+    private final ObjectMap<Object, Request> live = new ObjectMap<>();
+
+    public PathRequestService(AStarPathfinder pathfinder) {
+        this(pathfinder, Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    public PathRequestService(AStarPathfinder pathfinder, int workerCount) {
+        // build the per-worker copies up front (at level load) rather than on the first request
+        LinkedBlockingQueue<AStarPathfinder> copies = new LinkedBlockingQueue<>();
+        for (int i = 0; i < workerCount; i++) {
+            copies.add(new AStarPathfinder(pathfinder));
+        }
+        this.searchers = ThreadLocal.withInitial(() -> {
+            AStarPathfinder copy = copies.poll();
+            return copy != null ? copy : new AStarPathfinder(pathfinder);
+        });
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "path-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // never keep the game process alive
+            return thread;
+        });
+    }
+
+    public void submit(Object requester, Vector2 start, Vector2 goal, PathCallback callback) {
+        Request request = new Request(requester, new Vector2(start), new Vector2(goal), callback);
+        Request previous = live.put(requester, request);
+        if (previous != null) previous.cancelled = true;
+
+        workers.execute(() -> {
+            if (request.cancelled) return;
+            request.path = searchers.get().findPath(request.start, request.goal);
+            completed.add(request);
+        });
+    }
+
+    public void cancel(Object requester) {
+        Request request = live.remove(requester);
+        if (request != null) request.cancelled = true;
+    }
+
+    public boolean isPending(Object requester) {
+        return live.containsKey(requester);
+    }
+
+    // delivers finished searches; call once per frame on the render thread
+    public void update() {
+        Request request;
+        while ((request = completed.poll()) != null) {
+            if (request.cancelled) continue;
+            live.remove(request.requester);
+            request.callback.onPathFound(request.path);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        workers.shutdownNow();
+        completed.clear();
+        live.clear();
+    }
+}
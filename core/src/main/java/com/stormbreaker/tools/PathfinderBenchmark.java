@@ -0,0 +1,218 @@
+package com.stormbreaker.tools;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Plain-Java benchmark for the pathfinders, runnable without a GL context:
+ * {@code ./gradlew core:pathfinderBenchmark}
+ *
+ * The TMX collision layer is read straight from the XML (flipping y the same way
+ * TmxMapLoader does) so the grids match what the game builds at level load. The default run
+ * also tiles the first (fully connected) map into a much bigger one to show how each mode scales.
+ */
+public class PathfinderBenchmark {
+    // same values GameSimulation uses for the enemy pathfinder
+    private static final float CELL_SIZE = 32f;
+    private static final float ENEMY_BUFFER = 16.5f;
+
+    private static final int QUERY_COUNT = 256;
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+    private static final int TILE_REPEAT = 8;
+
+    public static void main(String[] args) throws Exception {
+        String[] maps = args.length > 0 ? args : new String[] {
+            "assets/maps/test_map.tmx",
+            "assets/maps/map_desert.tmx",
+            "assets/maps/Map Stone House.tmx"
+        };
+        for (String mapPath : maps) {
+            runMap(new File(mapPath).getName(), loadMap(new File(mapPath)));
+        }
+        if (args.length == 0) {
+            runMap(new File(maps[0]).getName() + " tiled " + TILE_REPEAT + "x" + TILE_REPEAT,
+                tile(loadMap(new File(maps[0])), TILE_REPEAT));
+        }
+    }
+
+    private static void runMap(String name, LoadedMap map) {
+        AStarPathfinder pathfinder = new AStarPathfinder(map.width, map.height, CELL_SIZE, map.obstacles, ENEMY_BUFFER);
+        Vector2[][] queries = randomQueries(pathfinder, QUERY_COUNT, new Random(42));
+        System.out.println(String.format(Locale.ROOT, "%s  grid %dx%d  obstacles %d",
+            name, pathfinder.getGridWidth(), pathfinder.getGridHeight(), map.obstacles.size));
+
+        // ASTAR and JUMP_POINT must match the A* cost exactly, HIERARCHICAL reports how far off it is
+        float[] reference = pathCosts(pathfinder, queries, AStarPathfinder.SearchMode.ASTAR);
+        double baseline = 0;
+        for (AStarPathfinder.SearchMode mode : AStarPathfinder.SearchMode.values()) {
+            long buildStart = System.nanoTime();
+            float[] costs = pathCosts(pathfinder, queries, mode);
+            if (mode == AStarPathfinder.SearchMode.HIERARCHICAL) {
+                HierarchicalPathfinder hierarchy = pathfinder.getHierarchy();
+                System.out.println(String.format(Locale.ROOT, "  (cluster graph: %d nodes, %d edges, built in %.1f ms)",
+                    hierarchy.getNodeCount(), hierarchy.getEdgeCount(), (System.nanoTime() - buildStart) / 1e6));
+            }
+            int mismatches = 0;
+            double extraCost = 0;
+            double totalCost = 0;
+            for (int i = 0; i < costs.length; i++) {
+                if ((costs[i] < 0) != (reference[i] < 0)) {
+                    mismatches++;
+                } else if (reference[i] >= 0) {
+                    if (Math.abs(costs[i] - reference[i]) > 1e-3f) mismatches++;
+                    extraCost += costs[i] - reference[i];
+                    totalCost += reference[i];
+                }
+            }
+
+            // warm up the JIT before measuring
+            runFor(pathfinder, queries, WARMUP_NANOS);
+            long[] result = runFor(pathfinder, queries, MEASURE_NANOS);
+            double perSecond = result[0] * 1e9 / result[1];
+            if (mode == AStarPathfinder.SearchMode.ASTAR) baseline = perSecond;
+
+            System.out.println(String.format(Locale.ROOT,
+                "  %-12s %,12.0f searches/s  %8.2f us/search  x%6.2f  (%d/%d reachable, %d cost mismatches, %+.2f%% cost)",
+                mode, perSecond, result[1] / 1e3 / result[0], perSecond / baseline,
+                result[2], queries.length, mismatches, totalCost > 0 ? 100 * extraCost / totalCost : 0));
+        }
+        runFlowField(pathfinder, queries);
+    }
+
+    // one field serves every chaser heading for its target, so this is the whole per-target cost
+    private static void runFlowField(AStarPathfinder pathfinder, Vector2[][] queries) {
+        FlowField field = new FlowField(pathfinder);
+        int[] targets = new int[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            targets[i] = pathfinder.toCellY(queries[i][1].y) * pathfinder.getGridWidth() + pathfinder.toCellX(queries[i][1].x);
+        }
+        long builds = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int target : targets) field.build(target);
+            builds += targets.length;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < WARMUP_NANOS + MEASURE_NANOS);
+        System.out.println(String.format(Locale.ROOT, "  %-12s %,12.0f builds/s    %8.2f us/build", "FLOW_FIELD",
+            builds * 1e9 / elapsed, elapsed / 1e3 / builds));
+    }
+
+    private static float[] pathCosts(AStarPathfinder pathfinder, Vector2[][] queries, AStarPathfinder.SearchMode mode) {
+        pathfinder.setSearchMode(mode);
+        float[] costs = new float[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            Array<Vector2> path = pathfinder.findPath(queries[i][0], queries[i][1]);
+            costs[i] = path == null ? -1f : pathCost(path, pathfinder.getCellSize());
+        }
+        return costs;
+    }
+
+    private static float pathCost(Array<Vector2> path, float cellSize) {
+        float cost = 0f;
+        for (int i = 1; i < path.size; i++) {
+            boolean diagonal = Math.abs(path.get(i).x - path.get(i - 1).x) > cellSize * 0.5f
+                && Math.abs(path.get(i).y - path.get(i - 1).y) > cellSize * 0.5f;
+            cost += diagonal ? AStarPathfinder.DIAGONAL_COST : AStarPathfinder.STRAIGHT_COST;
+        }
+        return cost;
+    }
+
+    // returns {searches, elapsedNanos, reachableQueriesInLastPass}
+    private static long[] runFor(AStarPathfinder pathfinder, Vector2[][] queries, long nanos) {
+        long searches = 0;
+        long found = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            found = 0;
+            for (Vector2[] q : queries) {
+                if (pathfinder.findPath(q[0], q[1]) != null) found++;
+            }
+            searches += queries.length;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < nanos);
+        return new long[] { searches, elapsed, found };
+    }
+
+    private static Vector2[][] randomQueries(AStarPathfinder pathfinder, int count, Random random) {
+        Array<Vector2> open = new Array<>();
+        for (int y = 0; y < pathfinder.getGridHeight(); y++) {
+            for (int x = 0; x < pathfinder.getGridWidth(); x++) {
+                if (pathfinder.isWalkable(x, y)) {
+                    open.add(new Vector2((x + 0.5f) * pathfinder.getCellSize(), (y + 0.5f) * pathfinder.getCellSize()));
+                }
+            }
+        }
+        Vector2[][] queries = new Vector2[count][];
+        for (int i = 0; i < count; i++) {
+            queries[i] = new Vector2[] { open.get(random.nextInt(open.size)), open.get(random.nextInt(open.size)) };
+        }
+        return queries;
+    }
+
+    // repeats the map's obstacles count x count times, a stand-in for the big maps we want to ship
+    private static LoadedMap tile(LoadedMap map, int count) {
+        LoadedMap tiled = new LoadedMap();
+        tiled.width = map.width * count;
+        tiled.height = map.height * count;
+        for (int ty = 0; ty < count; ty++) {
+            for (int tx = 0; tx < count; tx++) {
+                for (CollisionRectangle rect : map.obstacles) {
+                    tiled.obstacles.add(new CollisionRectangle(rect.getX() + tx * map.width, rect.getY() + ty * map.height,
+                        rect.getWidth(), rect.getHeight()));
+                }
+            }
+        }
+        return tiled;
+    }
+
+    static class LoadedMap {
+        float width;
+        float height;
+        Array<CollisionRectangle> obstacles = new Array<>();
+    }
+
+    static LoadedMap loadMap(File file) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+        Element root = doc.getDocumentElement();
+        int tileHeight = Integer.parseInt(root.getAttribute("tileheight"));
+        LoadedMap map = new LoadedMap();
+        map.width = Integer.parseInt(root.getAttribute("width")) * Integer.parseInt(root.getAttribute("tilewidth"));
+        map.height = Integer.parseInt(root.getAttribute("height")) * tileHeight;
+
+        NodeList groups = doc.getElementsByTagName("objectgroup");
+        for (int g = 0; g < groups.getLength(); g++) {
+            Element group = (Element) groups.item(g);
+            if (!"CollisionLayer".equals(group.getAttribute("name"))) continue;
+            NodeList objects = group.getElementsByTagName("object");
+            for (int i = 0; i < objects.getLength(); i++) {
+                Element object = (Element) objects.item(i);
+                if (object.getElementsByTagName("ellipse").getLength() > 0
+                    || object.getElementsByTagName("polygon").getLength() > 0
+                    || object.getElementsByTagName("polyline").getLength() > 0
+                    || object.getElementsByTagName("point").getLength() > 0) {
+                    continue; // MapManager only keeps rectangles
+                }
+                float x = Float.parseFloat(object.getAttribute("x"));
+                float y = Float.parseFloat(object.getAttribute("y"));
+                float w = object.hasAttribute("width") ? Float.parseFloat(object.getAttribute("width")) : 0f;
+                float h = object.hasAttribute("height") ? Float.parseFloat(object.getAttribute("height")) : 0f;
+                // Tiled has y pointing down, TmxMapLoader flips it
+                map.obstacles.add(new CollisionRectangle(x, map.height - y - h, (int) w, (int) h));
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,140 @@
+package com.stormbreaker.tools;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Precomputed cell-to-cell visibility over the pathfinding grid.
+ *
+ * Bit (a, b) is clear only when no point in cell a can see any point in cell b, so a clear
+ * bit means a line-of-sight check between the two cells can be skipped outright, and a set
+ * bit still needs the exact ray from {@link VisibilityGrid}. Walls don't move after the map
+ * loads, so the table is built once per level.
+ *
+ * To keep the table conservative it is built from a 2x2 grid of sample points per cell, with
+ * rays tested against the rectangles shrunk by the distance from any point in the cell to its
+ * nearest sample. If some sightline p -> q between the cells is clear, the sample segment
+ * next to it stays within that distance of it, so it clears the shrunk rectangles and the bit
+ * gets set. Walls thinner than twice that distance disappear from the table; the exact ray
+ * still catches them.
+ *
+ * The table grows with the square of the cell count, so on maps that would need more than
+ * {@link #MAX_CELLS} cells it uses cells of 2, 4, ... times the given size until it fits. The
+ * sample margin grows with the cell, so coarse tables lose more thin walls and prune fewer
+ * rays, but they stay conservative. A table that isn't built yet reports every pair as
+ * potentially visible.
+ */
+public class PotentiallyVisibleSet implements Disposable {
+    public static final int MAX_CELLS = 4096;
+
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final int rowWords;
+    private final long[] bits; // row a, bit b
+    private final VisibilityGrid rays;
+    private volatile boolean ready;
+    private volatile boolean cancelled;
+
+    public PotentiallyVisibleSet(Array<CollisionRectangle> rectangles, float mapWidth, float mapHeight, float cellSize) {
+        // coarser cells on big maps, so the table stays within MAX_CELLS squared bits
+        float tableCellSize = cellSize;
+        while (cellsAcross(mapWidth, tableCellSize) * cellsAcross(mapHeight, tableCellSize) > MAX_CELLS) {
+            tableCellSize *= 2;
+        }
+        this.cellSize = tableCellSize;
+        this.columns = cellsAcross(mapWidth, tableCellSize);
+        this.rows = cellsAcross(mapHeight, tableCellSize);
+        int cellCount = columns * rows;
+        this.rowWords = (cellCount + 63) >>> 6;
+        this.bits = new long[cellCount * rowWords];
+
+        // every point of a cell is within a quarter diagonal of one of its 2x2 samples
+        float margin = tableCellSize * (float) Math.sqrt(2) / 4f;
+        Array<CollisionRectangle> shrunk = new Array<>();
+        for (CollisionRectangle rect : rectangles) {
+            int width = (int) (rect.getWidth() - 2 * margin);
+            int height = (int) (rect.getHeight() - 2 * margin);
+            if (width > 0 && height > 0) {
+                shrunk.add(new CollisionRectangle(rect.getX() + margin, rect.getY() + margin, width, height));
+            }
+        }
+        this.rays = new VisibilityGrid(shrunk, mapWidth, mapHeight, cellSize);
+    }
+
+    private static int cellsAcross(float length, float cellSize) {
+        return Math.max(1, (int) Math.ceil(length / cellSize));
+    }
+
+    /**
+     * Fills the table. Takes a second or two on a 40x25 grid, see {@link #buildInBackground()}.
+     */
+    public void build() {
+        int cellCount = columns * rows;
+        for (int a = 0; a < cellCount; a++) {
+            if (cancelled) return;
+            for (int b = a; b < cellCount; b++) {
+                if (samplesSeeEachOther(a, b)) {
+                    bits[a * rowWords + (b >>> 6)] |= 1L << b;
+                    bits[b * rowWords + (a >>> 6)] |= 1L << a;
+                }
+            }
+        }
+        ready = true; // publishes the bits to other threads
+    }
+
+    /**
+     * Builds the table on a daemon thread. Until it finishes every pair counts as potentially
+     * visible, so callers just fall back to the exact ray for the first second of the level.
+     */
+    public void buildInBackground() {
+        Thread builder = new Thread(this::build, "pvs-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    // true if any of a's sample points has a clear ray to any of b's
+    private boolean samplesSeeEachOther(int a, int b) {
+        float ax = (a % columns) * cellSize, ay = (a / columns) * cellSize;
+        float bx = (b % columns) * cellSize, by = (b / columns) * cellSize;
+        for (int i = 0; i < 4; i++) {
+            float px = ax + ((i & 1) == 0 ? 0.25f : 0.75f) * cellSize;
+            float py = ay + ((i & 2) == 0 ? 0.25f : 0.75f) * cellSize;
+            for (int j = 0; j < 4; j++) {
+                float qx = bx + ((j & 1) == 0 ? 0.25f : 0.75f) * cellSize;
+                float qy = by + ((j & 2) == 0 ? 0.25f : 0.75f) * cellSize;
+                if (rays.hasLineOfSight(px, py, qx, qy)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * False if nothing in the cell of (x0, y0) can see anything in the cell of (x1, y1).
+     * Points off the map are always potentially visible.
+     */
+    public boolean mayBeVisible(float x0, float y0, float x1, float y1) {
+        if (!ready) return true;
+        int a = cellOf(x0, y0);
+        int b = cellOf(x1, y1);
+        if (a < 0 || b < 0) return true;
+        return (bits[a * rowWords + (b >>> 6)] & (1L << b)) != 0;
+    }
+
+    private int cellOf(float x, float y) {
+        int cx = (int) Math.floor(x / cellSize);
+        int cy = (int) Math.floor(y / cellSize);
+        if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return -1;
+        return cy * columns + cx;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // stops a background build that is still running
+    @Override
+    public void dispose() {
+        cancelled = true;
+    }
+}
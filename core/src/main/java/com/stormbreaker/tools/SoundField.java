@@ -0,0 +1,123 @@
+package com.stormbreaker.tools;
+
+/**
+ * How far a sound has travelled around walls, for sounds that shouldn't go through them.
+ *
+ * The map is split into cells and the sound spreads from its source cell like Dijkstra over
+ * the 8 neighbours, a step being allowed when the {@link VisibilityGrid} has line of sight
+ * between the two cell centres. {@link #expand} only settles the cells the ring has reached
+ * since the last call, so a sound growing over several ticks costs about the cells it covers
+ * in total. Distances are along the cell graph, which is never shorter than the straight line.
+ *
+ * Every array is sized for the whole map once; {@link #start} reuses them through a
+ * generation stamp, so a field kept with a pooled sound event allocates nothing afterwards.
+ */
+public class SoundField {
+    public static final float DEFAULT_CELL_SIZE = 16f;
+
+    private static final float DIAGONAL = (float) Math.sqrt(2);
+    private static final int[] STEP_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] STEP_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final VisibilityGrid walls;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+
+    private final float[] distance;
+    private final int[] stamp; // cells whose distance belongs to the current sound
+    private final boolean[] settled;
+    private final IndexedMinHeap open;
+    private int generation;
+
+    private float sourceX, sourceY;
+    private int sourceCell;
+
+    public SoundField(VisibilityGrid walls, float mapWidth, float mapHeight) {
+        this(walls, mapWidth, mapHeight, DEFAULT_CELL_SIZE);
+    }
+
+    public SoundField(VisibilityGrid walls, float mapWidth, float mapHeight, float cellSize) {
+        this.walls = walls;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(mapWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(mapHeight / cellSize));
+        int cellCount = columns * rows;
+        distance = new float[cellCount];
+        stamp = new int[cellCount];
+        settled = new boolean[cellCount];
+        open = new IndexedMinHeap(cellCount, distance);
+    }
+
+    // forget the previous sound and start one at (x, y) with radius 0
+    public void start(float x, float y) {
+        generation++;
+        open.clear();
+        sourceX = x;
+        sourceY = y;
+        sourceCell = cell(x, y);
+        distance[sourceCell] = 0f;
+        stamp[sourceCell] = generation;
+        settled[sourceCell] = false;
+        open.push(sourceCell);
+    }
+
+    // settles every cell the sound reaches within radius
+    public void expand(float radius) {
+        while (!open.isEmpty() && distance[open.peek()] <= radius) {
+            int current = open.pop();
+            settled[current] = true;
+
+            int cx = current % columns;
+            int cy = current / columns;
+            // the source cell spreads from the sound itself, its centre may be inside a wall
+            float fromX = current == sourceCell ? sourceX : centre(cx);
+            float fromY = current == sourceCell ? sourceY : centre(cy);
+            for (int k = 0; k < STEP_X.length; k++) {
+                int nx = cx + STEP_X[k];
+                int ny = cy + STEP_Y[k];
+                if (nx < 0 || ny < 0 || nx >= columns || ny >= rows) continue;
+                int next = ny * columns + nx;
+                boolean seen = stamp[next] == generation;
+                if (seen && settled[next]) continue;
+
+                float toX = centre(nx);
+                float toY = centre(ny);
+                float step = current == sourceCell
+                    ? (float) Math.sqrt((toX - fromX) * (toX - fromX) + (toY - fromY) * (toY - fromY))
+                    : (k < 4 ? cellSize : cellSize * DIAGONAL);
+                float candidate = distance[current] + step;
+                if (seen && candidate >= distance[next]) continue;
+                if (!walls.hasLineOfSight(fromX, fromY, toX, toY)) continue;
+
+                distance[next] = candidate;
+                if (seen) {
+                    open.decreaseKey(next);
+                } else {
+                    stamp[next] = generation;
+                    settled[next] = false;
+                    open.push(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * True if the sound has reached the cell of (x, y) within radius. Call {@link #expand}
+     * with the same radius first.
+     */
+    public boolean reaches(float x, float y, float radius) {
+        int c = cell(x, y);
+        return stamp[c] == generation && settled[c] && distance[c] <= radius;
+    }
+
+    private float centre(int index) {
+        return (index + 0.5f) * cellSize;
+    }
+
+    private int cell(float x, float y) {
+        int cx = Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+        int cy = Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+        return cy * columns + cx;
+    }
+}
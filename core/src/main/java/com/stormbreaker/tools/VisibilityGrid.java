@@ -0,0 +1,228 @@
+package com.stormbreaker.tools;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Line-of-sight queries against the map's collision rectangles.
+ *
+ * At load time the rectangles are rasterised into an occupancy grid: a cell is SOLID when a
+ * single rectangle covers all of it, PARTIAL when rectangles cover (or touch) only part of it,
+ * and EMPTY otherwise. {@link #hasLineOfSight} walks the cells the segment crosses with an
+ * Amanatides-Woo DDA, stops at the first SOLID cell and only tests rectangles exactly in
+ * PARTIAL cells, so a query costs O(cells crossed) and can't step over thin walls the way
+ * sampling every few pixels can.
+ *
+ * Rectangles count as closed, so a segment that only touches an edge or corner is blocked.
+ * Queries don't allocate or mutate anything, so they are safe from any thread.
+ */
+public class VisibilityGrid {
+    public static final float DEFAULT_CELL_SIZE = 16f;
+
+    private static final byte EMPTY = 0;
+    private static final byte PARTIAL = 1;
+    private static final byte SOLID = 2;
+
+    private final float cellSize;
+    private final float originX;
+    private final float originY;
+    private final float boundsMaxX;
+    private final float boundsMaxY;
+    private final int columns;
+    private final int rows;
+    private final byte[] occupancy;
+
+    // rectangles that need an exact test, per PARTIAL cell: cellItems[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cellItems;
+    private final float[] rectMinX;
+    private final float[] rectMinY;
+    private final float[] rectMaxX;
+    private final float[] rectMaxY;
+
+    public VisibilityGrid(Array<CollisionRectangle> rectangles, float mapWidth, float mapHeight) {
+        this(rectangles, mapWidth, mapHeight, DEFAULT_CELL_SIZE);
+    }
+
+    public VisibilityGrid(Array<CollisionRectangle> rectangles, float mapWidth, float mapHeight, float cellSize) {
+        this.cellSize = cellSize;
+        int count = rectangles.size;
+        rectMinX = new float[count];
+        rectMinY = new float[count];
+        rectMaxX = new float[count];
+        rectMaxY = new float[count];
+
+        float minX = 0f, minY = 0f, maxX = mapWidth, maxY = mapHeight;
+        for (int i = 0; i < count; i++) {
+            CollisionRectangle rect = rectangles.get(i);
+            rectMinX[i] = rect.getX();
+            rectMinY[i] = rect.getY();
+            rectMaxX[i] = rect.getX() + rect.getWidth();
+            rectMaxY[i] = rect.getY() + rect.getHeight();
+            minX = Math.min(minX, rectMinX[i]);
+            minY = Math.min(minY, rectMinY[i]);
+            maxX = Math.max(maxX, rectMaxX[i]);
+            maxY = Math.max(maxY, rectMaxY[i]);
+        }
+        this.originX = minX;
+        this.originY = minY;
+        this.boundsMaxX = maxX;
+        this.boundsMaxY = maxY;
+        this.columns = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+        int cellCount = columns * rows;
+
+        // mark solid cells first, a partial rectangle in a solid cell never needs testing
+        occupancy = new byte[cellCount];
+        for (int i = 0; i < count; i++) {
+            for (int cy = row(rectMinY[i]); cy <= row(rectMaxY[i]); cy++) {
+                for (int cx = column(rectMinX[i]); cx <= column(rectMaxX[i]); cx++) {
+                    if (covers(i, cx, cy)) occupancy[cy * columns + cx] = SOLID;
+                }
+            }
+        }
+
+        // then list every rectangle in the non-solid cells it touches (count, prefix-sum, fill)
+        cellStart = new int[cellCount + 1];
+        for (int i = 0; i < count; i++) {
+            for (int cy = row(rectMinY[i]); cy <= row(rectMaxY[i]); cy++) {
+                for (int cx = column(rectMinX[i]); cx <= column(rectMaxX[i]); cx++) {
+                    int c = cy * columns + cx;
+                    if (occupancy[c] == SOLID) continue;
+                    occupancy[c] = PARTIAL;
+                    cellStart[c + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellItems = new int[cellStart[cellCount]];
+        int[] fill = new int[cellCount];
+        for (int i = 0; i < count; i++) {
+            for (int cy = row(rectMinY[i]); cy <= row(rectMaxY[i]); cy++) {
+                for (int cx = column(rectMinX[i]); cx <= column(rectMaxX[i]); cx++) {
+                    int c = cy * columns + cx;
+                    if (occupancy[c] != SOLID) cellItems[cellStart[c] + fill[c]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * True if the segment from (x0, y0) to (x1, y1) doesn't touch any collision rectangle.
+     */
+    public boolean hasLineOfSight(float x0, float y0, float x1, float y1) {
+        // clip to the covered area, nothing blocks outside it (Liang-Barsky)
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double t0 = 0.0, t1 = 1.0;
+        if (dx == 0.0) {
+            if (x0 < originX || x0 > boundsMaxX) return true;
+        } else {
+            double ta = (originX - x0) / dx;
+            double tb = (boundsMaxX - x0) / dx;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (dy == 0.0) {
+            if (y0 < originY || y0 > boundsMaxY) return true;
+        } else {
+            double ta = (originY - y0) / dy;
+            double tb = (boundsMaxY - y0) / dy;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (t0 > t1) return true;
+
+        int cx = column((float) (x0 + dx * t0));
+        int cy = row((float) (y0 + dy * t0));
+        int endColumn = column((float) (x0 + dx * t1));
+        int endRow = row((float) (y0 + dy * t1));
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+
+        while (true) {
+            if (blocks(cx, cy, x0, y0, x1, y1)) return false;
+            if (cx == endColumn && cy == endRow) return true;
+            // parameter where the segment leaves this cell on each axis, from the cell edge
+            // itself so rounding can't build up along long rays
+            double tNextX = stepX != 0 ? (originX + (stepX > 0 ? cx + 1 : cx) * (double) cellSize - x0) / dx : Double.MAX_VALUE;
+            double tNextY = stepY != 0 ? (originY + (stepY > 0 ? cy + 1 : cy) * (double) cellSize - y0) / dy : Double.MAX_VALUE;
+            if (Math.min(tNextX, tNextY) > t1) return true;
+            if (tNextX < tNextY) {
+                cx += stepX;
+            } else if (tNextY < tNextX) {
+                cy += stepY;
+            } else {
+                // exactly through a corner: the segment touches both side cells too
+                if (blocks(cx + stepX, cy, x0, y0, x1, y1) || blocks(cx, cy + stepY, x0, y0, x1, y1)) return false;
+                cx += stepX;
+                cy += stepY;
+            }
+            if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return true;
+        }
+    }
+
+    // true if the segment touches an obstacle inside cell (cx, cy), given that it passes through the cell
+    private boolean blocks(int cx, int cy, float x0, float y0, float x1, float y1) {
+        if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return false;
+        int c = cy * columns + cx;
+        switch (occupancy[c]) {
+            case SOLID:
+                return true;
+            case PARTIAL:
+                for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                    if (segmentTouchesRect(cellItems[i], x0, y0, x1, y1)) return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    // slab test against the closed rectangle
+    private boolean segmentTouchesRect(int rect, float x0, float y0, float x1, float y1) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double t0 = 0.0, t1 = 1.0;
+        if (dx == 0.0) {
+            if (x0 < rectMinX[rect] || x0 > rectMaxX[rect]) return false;
+        } else {
+            double ta = (rectMinX[rect] - x0) / dx;
+            double tb = (rectMaxX[rect] - x0) / dx;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (dy == 0.0) {
+            if (y0 < rectMinY[rect] || y0 > rectMaxY[rect]) return false;
+        } else {
+            double ta = (rectMinY[rect] - y0) / dy;
+            double tb = (rectMaxY[rect] - y0) / dy;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        return t0 <= t1;
+    }
+
+    // true if rectangle i covers every point of cell (cx, cy)
+    private boolean covers(int i, int cx, int cy) {
+        float cellMinX = originX + cx * cellSize;
+        float cellMinY = originY + cy * cellSize;
+        return rectMinX[i] <= cellMinX && cellMinX + cellSize <= rectMaxX[i]
+            && rectMinY[i] <= cellMinY && cellMinY + cellSize <= rectMaxY[i];
+    }
+
+    private int column(float worldX) {
+        int cx = (int) Math.floor((worldX - originX) / cellSize);
+        return Math.max(0, Math.min(columns - 1, cx));
+    }
+
+    private int row(float worldY) {
+        int cy = (int) Math.floor((worldY - originY) / cellSize);
+        return Math.max(0, Math.min(rows - 1, cy));
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+}
@@ -1,7 +1,7 @@
 package com.stormbreaker.weapons;
 
 import com.badlogic.gdx.math.MathUtils;
-import com.stormbreaker.Bullet;
+import com.stormbreaker.BulletSystem;
 import com.stormbreaker.Character;
 
 public class Carbine extends Weapon {
@@ -22,17 +22,16 @@ public class Carbine extends Weapon {
     }
     
     @Override
-    public Bullet fire(float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
+    public boolean fire(BulletSystem bullets, float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
         if (!canFire()) {
-            return null;
+            return false;
         }
         // Apply random spread using spreadMultiplier
         float angle = MathUtils.random(-spreadAngle * spreadMultiplier, spreadAngle * spreadMultiplier);
         float radians = angle * MathUtils.degreesToRadians;
         float spreadX = dirX * (float) Math.cos(radians) - dirY * (float) Math.sin(radians);
         float spreadY = dirX * (float) Math.sin(radians) + dirY * (float) Math.cos(radians);
-        Bullet bullet = new Bullet(x, y, spreadX, spreadY, owner);
-        bullet.setDamage(damage);
+        bullets.spawn(x, y, spreadX, spreadY, owner, damage);
         playFireSound();
         
         // Reset cooldown
@@ -46,7 +45,7 @@ public class Carbine extends Weapon {
             currentAmmo--;
         }
         
-        return bullet;
+        return true;
     }
     
     @Override
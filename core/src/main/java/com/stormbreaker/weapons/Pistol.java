@@ -1,7 +1,7 @@
 package com.stormbreaker.weapons;
 
 import com.badlogic.gdx.math.MathUtils;
-import com.stormbreaker.Bullet;
+import com.stormbreaker.BulletSystem;
 import com.stormbreaker.Character;
 
 public class Pistol extends Weapon {
@@ -22,9 +22,9 @@ public class Pistol extends Weapon {
     }
 
     @Override
-    public Bullet fire(float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
+    public boolean fire(BulletSystem bullets, float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
         if (!canFire()) {
-            return null;
+            return false;
         }
         
         // Apply random spread using spreadMultiplier
@@ -34,8 +34,7 @@ public class Pistol extends Weapon {
         float spreadY = dirX * (float) Math.sin(radians) + dirY * (float) Math.cos(radians);
         
         // Create bullet with the modified direction
-        Bullet bullet = new Bullet(x, y, spreadX, spreadY, owner);
-        bullet.setDamage(damage);
+        bullets.spawn(x, y, spreadX, spreadY, owner, damage);
 
         playFireSound();
         
@@ -50,6 +49,6 @@ public class Pistol extends Weapon {
             currentAmmo--;
         }
         
-        return bullet;
+        return true;
     }
 }
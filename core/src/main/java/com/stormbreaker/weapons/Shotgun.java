@@ -1,8 +1,7 @@
 package com.stormbreaker.weapons;
 
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.Array;
-import com.stormbreaker.Bullet;
+import com.stormbreaker.BulletSystem;
 import com.stormbreaker.Character;
 
 public class Shotgun extends Weapon {
@@ -24,9 +23,9 @@ public class Shotgun extends Weapon {
     }
     
     @Override
-    public Bullet fire(float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
+    public boolean fire(BulletSystem bullets, float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
         if (!canFire()) {
-            return null;
+            return false;
         }
         
         float pelletSpread = com.badlogic.gdx.math.MathUtils.random(-spreadAngle * spreadMultiplier, spreadAngle * spreadMultiplier);
@@ -34,8 +33,7 @@ public class Shotgun extends Weapon {
         float spreadX = dirX * (float) Math.cos(radians) - dirY * (float) Math.sin(radians);
         float spreadY = dirX * (float) Math.sin(radians) + dirY * (float) Math.cos(radians);
         
-        Bullet pellet = new Bullet(x, y, spreadX, spreadY, owner);
-        pellet.setDamage(damage);
+        bullets.spawn(x, y, spreadX, spreadY, owner, damage);
         
         playFireSound();
         
@@ -50,17 +48,18 @@ public class Shotgun extends Weapon {
             currentAmmo--;
         }
         
-        return pellet;
+        return true;
     }
     
-    public Array<Bullet> fireShotgun(float x, float y, float dirX, float dirY, Character owner) {
+    public boolean fireShotgun(BulletSystem bullets, float x, float y, float dirX, float dirY, Character owner) {
         // Call the version with spread multiplier using default value of 1.0f
-        return fireShotgun(x, y, dirX, dirY, owner, 1.0f);
+        return fireShotgun(bullets, x, y, dirX, dirY, owner, 1.0f);
     }
     
-    public Array<Bullet> fireShotgun(float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
+    // fires every pellet into bullets, returns true if the shot went off
+    public boolean fireShotgun(BulletSystem bullets, float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier) {
         if (!canFire()) {
-            return null;
+            return false;
         }
         
         // Reset cooldown
@@ -74,18 +73,15 @@ public class Shotgun extends Weapon {
             currentAmmo--;
         }
         
-        Array<Bullet> pellets = new Array<>();
         for (int i = 0; i < pelletCount; i++) {
             float pelletSpread = MathUtils.random(-spreadAngle * spreadMultiplier, spreadAngle * spreadMultiplier);
             float radians = pelletSpread * MathUtils.degreesToRadians;
             float spreadX = dirX * (float) Math.cos(radians) - dirY * (float) Math.sin(radians);
             float spreadY = dirX * (float) Math.sin(radians) + dirY * (float) Math.cos(radians);
-            Bullet pellet = new Bullet(x, y, spreadX, spreadY, owner);
-            pellet.setDamage(damage);
-            pellets.add(pellet);
+            bullets.spawn(x, y, spreadX, spreadY, owner, damage);
         }
         playFireSound();
-        return pellets;
+        return true;
     }
     
     @Override
@@ -2,7 +2,7 @@ package com.stormbreaker.weapons;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
-import com.stormbreaker.Bullet;
+import com.stormbreaker.BulletSystem;
 import com.stormbreaker.Character;
 
 public abstract class Weapon {
@@ -42,12 +42,13 @@ public abstract class Weapon {
         timeSinceLastShot += delta;
     }
     
-    public Bullet fire(float x, float y, float dirX, float dirY, Character owner) {
+    // fires into bullets, returns true if a shot went off
+    public boolean fire(BulletSystem bullets, float x, float y, float dirX, float dirY, Character owner) {
         // Default implementation calls the more complex version with a spread multiplier of 1.0f
-        return fire(x, y, dirX, dirY, owner, 1.0f);
+        return fire(bullets, x, y, dirX, dirY, owner, 1.0f);
     }
     
-    public abstract Bullet fire(float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier);
+    public abstract boolean fire(BulletSystem bullets, float x, float y, float dirX, float dirY, Character owner, float spreadMultiplier);
 
     // return true if reload was successful, false if no magazines available or already at maximum capacity
     public boolean reload() {
@@ -0,0 +1,185 @@
+package com.adomas.stormbreaker.headless;
+
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.Random;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.stormbreaker.AiScheduler;
+import com.stormbreaker.Enemy;
+import com.stormbreaker.GameAssets;
+import com.stormbreaker.GameSimulation;
+import com.stormbreaker.InputFrame;
+import com.stormbreaker.LevelConfig;
+import com.stormbreaker.Player;
+import com.stormbreaker.Sprites;
+import com.stormbreaker.StormbreakerGame;
+import com.stormbreaker.tools.MapManager;
+
+/**
+ * Soak test for {@link GameSimulation} under the headless backend: a scripted player runs,
+ * shoots and throws grenades through every level as fast as the simulation allows, and the
+ * tick rate is printed per level. Needs no window or GPU.
+ *
+ * Ticks are {@link GameSimulation#TICK} long. Arguments: {@code --ticks N} (per level, default
+ * 20000), {@code --level I} (only that level), {@code --seed S} (for the scripted player),
+ * {@code --occluded-sound true|false} (sounds travel around walls on every level, default false).
+ */
+public class HeadlessSoakTest extends ApplicationAdapter {
+    private int ticksPerLevel = 20000;
+    private int onlyLevel = -1;
+    private long seed = 42L;
+    private boolean occludedSound;
+
+    public static void main(String[] args) {
+        HeadlessSoakTest soak = new HeadlessSoakTest();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--ticks": soak.ticksPerLevel = Integer.parseInt(args[i + 1]); break;
+                case "--level": soak.onlyLevel = Integer.parseInt(args[i + 1]); break;
+                case "--seed": soak.seed = Long.parseLong(args[i + 1]); break;
+                case "--occluded-sound": soak.occludedSound = Boolean.parseBoolean(args[i + 1]); break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        configuration.updatesPerSecond = -1; // everything runs in create, no render loop
+        new HeadlessApplication(soak, configuration);
+    }
+
+    @Override
+    public void create() {
+        // the map tiles and sprite atlas are still textures; a GL that does nothing lets them load
+        Gdx.gl = Gdx.gl20 = noOpGL();
+
+        Array<LevelConfig> levels = StormbreakerGame.createLevelConfigs();
+        for (int i = 0; i < levels.size; i++) {
+            if (onlyLevel < 0 || onlyLevel == i) runLevel(levels.get(i));
+        }
+        Sprites.dispose();
+        GameAssets.dispose();
+        Gdx.app.exit();
+    }
+
+    private void runLevel(LevelConfig config) {
+        config.occludedSound = occludedSound;
+        // same assets as the game, loaded in one go instead of behind a loading screen
+        GameAssets.queueLevel(config);
+        GameAssets.manager().finishLoading();
+        MapManager map = new MapManager(GameAssets.manager().get(config.mapPath, TiledMap.class), config.mapPath);
+        ScriptedPlayer script = new ScriptedPlayer(new Random(seed));
+        GameSimulation simulation = new GameSimulation(config, map);
+
+        int restarts = 0;
+        int peakBullets = 0;
+        long slowestTick = 0;
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticksPerLevel; tick++) {
+            long tickStart = System.nanoTime();
+            simulation.step(GameSimulation.TICK, script.next(simulation));
+            slowestTick = Math.max(slowestTick, System.nanoTime() - tickStart);
+            peakBullets = Math.max(peakBullets, simulation.getBullets().size());
+
+            // start over whenever the level ends, so the whole run keeps enemies busy
+            if (simulation.getPlayer().isDead() || simulation.areAllEnemiesDead()) {
+                simulation.reset();
+                restarts++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        AiScheduler ai = simulation.getAiScheduler();
+        double aiSkipped = 100.0 * ai.getSkips() / Math.max(1, ai.getUpdates() + ai.getSkips());
+        int soundFields = simulation.getSoundFieldCount();
+        simulation.dispose();
+        map.dispose();
+        GameAssets.unloadLevel(config);
+
+        System.out.println(String.format(Locale.ROOT,
+            "%-28s %d ticks in %.2f s  %.0f ticks/s  slowest %.2f ms  peak bullets %d  grenades %d  restarts %d  ai skipped %.0f%%  sound fields %d",
+            config.mapPath, ticksPerLevel, seconds, ticksPerLevel / seconds, slowestTick / 1e6,
+            peakBullets, script.grenadesThrown, restarts, aiSkipped, soundFields));
+    }
+
+    /**
+     * Walks in a random direction that changes every second, aims at the nearest live enemy and
+     * keeps shooting, reloads when empty, bandages when bleeding and now and then cooks a grenade
+     * or switches weapons.
+     */
+    private static class ScriptedPlayer {
+        private final Random random;
+        private final InputFrame frame = new InputFrame();
+        private int tick;
+        private int moveX;
+        private int moveY;
+        private int grenadesThrown;
+
+        ScriptedPlayer(Random random) {
+            this.random = random;
+        }
+
+        InputFrame next(GameSimulation simulation) {
+            Player player = simulation.getPlayer();
+            boolean wasFiring = frame.fireHeld;
+            boolean wasAimingGrenade = frame.grenadeHeld;
+            frame.clear();
+
+            if (tick % 120 == 0) {
+                moveX = random.nextInt(3) - 1;
+                moveY = random.nextInt(3) - 1;
+            }
+            frame.moveLeft = moveX < 0;
+            frame.moveRight = moveX > 0;
+            frame.moveDown = moveY < 0;
+            frame.moveUp = moveY > 0;
+
+            Enemy target = null;
+            float closest = Float.MAX_VALUE;
+            for (Enemy e : simulation.getEnemies()) {
+                float distance = Vector2.dst2(player.getX(), player.getY(), e.getX(), e.getY());
+                if (distance < closest) {
+                    closest = distance;
+                    target = e;
+                }
+            }
+            if (target != null) {
+                frame.aimX = target.getX();
+                frame.aimY = target.getY();
+            } else {
+                frame.aimX = player.getX() + 1f;
+                frame.aimY = player.getY();
+            }
+
+            // half a second of grenade aim every ten seconds, the rest of the time shoot in bursts
+            frame.grenadeHeld = tick % 1200 < 60;
+            if (wasAimingGrenade && !frame.grenadeHeld && player.hasGrenades()) grenadesThrown++;
+            frame.fireHeld = !frame.grenadeHeld && tick % 40 < 24;
+            frame.firePressed = frame.fireHeld && !wasFiring;
+
+            frame.reloadPressed = player.getCurrentAmmo() == 0;
+            frame.healHeld = player.isBleeding();
+            frame.nextWeaponPressed = tick % 1800 == 1799;
+            tick++;
+            return frame;
+        }
+    }
+
+    // GL20 whose calls do nothing and return zero, false or null
+    private static GL20 noOpGL() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class },
+            (proxy, method, args) -> {
+                Class<?> type = method.getReturnType();
+                if (type == boolean.class) return false;
+                if (type == int.class) return 0;
+                if (type == float.class) return 0f;
+                if (type == long.class) return 0L;
+                return null;
+            });
+    }
+}